@@ -0,0 +1,92 @@
+package com.energy_company_v1.build;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Сжатие статических ресурсов при сборке (фаза process-classes, см. pom.xml): рядом с каждым
+ * текстовым файлом в target/classes/static кладутся .gz и .br, которые отдает
+ * EncodedResourceResolver из StaticAssetsConfig. В приложении не используется.
+ * CSS не сжимается: CssLinkResourceTransformer не переписывает url(...) в уже сжатом
+ * ресурсе, и шрифты запрашивались бы по неверсионным адресам.
+ */
+public final class StaticAssetCompressor {
+    private static final Set<String> EXTENSIONS = Set.of("js", "svg", "json", "map", "txt");
+    // Мелкие файлы не сжимаются: выигрыш меньше накладных расходов заголовков
+    private static final int MIN_SIZE = 1024;
+
+    private StaticAssetCompressor() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Использование: StaticAssetCompressor <каталог static>");
+        }
+        Path root = Path.of(args[0]);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        Brotli4jLoader.ensureAvailability();
+        Encoder.Parameters brotli = new Encoder.Parameters().setQuality(11);
+
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile).filter(StaticAssetCompressor::isCompressible).toList();
+        }
+        long original = 0;
+        long compressed = 0;
+        for (Path file : files) {
+            byte[] content = Files.readAllBytes(file);
+            original += content.length;
+            compressed += write(file, ".br", Encoder.compress(content, brotli), content.length);
+            write(file, ".gz", gzip(content), content.length);
+        }
+        System.out.printf("Сжато ресурсов: %d, %d -> %d байт (brotli)%n", files.size(), original, compressed);
+    }
+
+    private static boolean isCompressible(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && EXTENSIONS.contains(name.substring(dot + 1)) && size(file) >= MIN_SIZE;
+    }
+
+    // Сжатая копия пишется, только если она действительно меньше исходника
+    private static long write(Path file, String suffix, byte[] compressed, int originalLength) throws IOException {
+        if (compressed.length >= originalLength) {
+            return originalLength;
+        }
+        Files.write(file.resolveSibling(file.getFileName() + suffix), compressed);
+        return compressed.length;
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 3);
+        try (OutputStream out = new GZIPOutputStream(bytes) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(content);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new RuntimeException("Не удалось прочитать " + file, e);
+        }
+    }
+}
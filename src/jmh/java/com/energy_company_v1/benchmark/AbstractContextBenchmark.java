@@ -0,0 +1,47 @@
+package com.energy_company_v1.benchmark;
+
+import com.energy_company_v1.EnergyCompanyV1Application;
+import com.energy_company_v1.service.FleetStatisticsCache;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общая часть бенчмарков: контекст приложения на встроенной H2 (профиль benchmark),
+ * заполненный синтетическим парком из rows энергообъектов
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public abstract class AbstractContextBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    protected ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(EnergyCompanyV1Application.class)
+                .profiles("benchmark")
+                .run();
+        new SyntheticFleetGenerator(context.getBean(JdbcTemplate.class)).generate(rows);
+        context.getBean(FleetStatisticsCache.class).reconcile();
+        init();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    protected abstract void init();
+}
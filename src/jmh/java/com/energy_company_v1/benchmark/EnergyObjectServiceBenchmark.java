@@ -0,0 +1,52 @@
+package com.energy_company_v1.benchmark;
+
+import com.energy_company_v1.dto.CursorPage;
+import com.energy_company_v1.model.EnergyObject;
+import com.energy_company_v1.repository.EnergyObjectRepository;
+import com.energy_company_v1.service.EnergyObjectService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Поиск и пагинация списка энергообъектов.
+ * Полнотекстовый поиск требует PostgreSQL, поэтому на H2 замеряется LIKE-запрос.
+ */
+public class EnergyObjectServiceBenchmark extends AbstractContextBenchmark {
+
+    private EnergyObjectService energyObjectService;
+    private EnergyObjectRepository energyObjectRepository;
+    private int middlePage;
+
+    @Override
+    protected void init() {
+        energyObjectService = context.getBean(EnergyObjectService.class);
+        energyObjectRepository = context.getBean(EnergyObjectRepository.class);
+        middlePage = rows / 10 / 2;
+    }
+
+    @Benchmark
+    public Page<EnergyObject> listFirstPage() {
+        return energyObjectService.getAllEnergyObjects(
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id")));
+    }
+
+    @Benchmark
+    public Page<EnergyObject> listMiddlePageByOffset() {
+        return energyObjectService.getAllEnergyObjects(
+                PageRequest.of(middlePage, 10, Sort.by(Sort.Direction.DESC, "power").and(Sort.by("id"))));
+    }
+
+    @Benchmark
+    public CursorPage<EnergyObject> scrollFirstPage() {
+        return energyObjectService.scrollEnergyObjects(null, "power", Sort.Direction.DESC,
+                null, null, 10, false);
+    }
+
+    @Benchmark
+    public Page<EnergyObject> searchFirstPage() {
+        return energyObjectRepository.searchByKeywordPageable("ТЭЦ",
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "name").and(Sort.by("id"))));
+    }
+}
@@ -0,0 +1,88 @@
+package com.energy_company_v1.benchmark;
+
+import com.energy_company_v1.EnergyCompanyV1Application;
+import com.energy_company_v1.model.EnergyObject;
+import com.energy_company_v1.repository.EnergyObjectRepository;
+import com.energy_company_v1.service.EnergyObjectService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полнотекстовый поиск (fullTextSearchRanked по индексу GIN из миграции V2) против прежнего
+ * LIKE-поиска по подстроке. Нужен PostgreSQL, поэтому контекст поднимается не на H2,
+ * а на контейнере Testcontainers со схемой из миграций Flyway; без Docker бенчмарк не запустится:
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="FullTextSearchBenchmark -p rows=100000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class FullTextSearchBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    // Слово из местоположения (~1/12 парка) и тип (~1/6): оба запроса находят одни и те же объекты
+    @Param({"Татарстан", "ГЭС"})
+    public String keyword;
+
+    private PostgreSQLContainer postgres;
+    private ConfigurableApplicationContext context;
+    private EnergyObjectService energyObjectService;
+    private EnergyObjectRepository energyObjectRepository;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        postgres = new PostgreSQLContainer("postgres:16-alpine");
+        postgres.start();
+        // Аргументы командной строки перекрывают настройки H2 из application-benchmark.properties
+        context = new SpringApplicationBuilder(EnergyCompanyV1Application.class)
+                .profiles("benchmark")
+                .run("--spring.datasource.driver-class-name=org.postgresql.Driver",
+                        "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "--spring.datasource.username=" + postgres.getUsername(),
+                        "--spring.datasource.password=" + postgres.getPassword(),
+                        "--spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+                        "--spring.jpa.hibernate.ddl-auto=validate",
+                        "--spring.flyway.enabled=true",
+                        "--spring.sql.init.mode=never");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        new SyntheticFleetGenerator(jdbcTemplate).generate(rows);
+        jdbcTemplate.execute("ANALYZE energy_objects");
+        energyObjectService = context.getBean(EnergyObjectService.class);
+        energyObjectRepository = context.getBean(EnergyObjectRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    // Путь поиска из списка: без сортировки - по релевантности через fullTextSearchRanked
+    @Benchmark
+    public Page<EnergyObject> fullTextSearchRanked() {
+        return energyObjectService.searchEnergyObjects(keyword, PageRequest.of(0, 10));
+    }
+
+    // Прежний поиск: LOWER(...) LIKE '%...%' по трем колонкам
+    @Benchmark
+    public Page<EnergyObject> likeSearch() {
+        return energyObjectRepository.searchByKeywordPageable(keyword,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id")));
+    }
+}
@@ -0,0 +1,69 @@
+package com.energy_company_v1.benchmark;
+
+import com.energy_company_v1.dto.ImportReport;
+import com.energy_company_v1.model.EnergyObject;
+import com.energy_company_v1.service.EnergyObjectImportService;
+import com.energy_company_v1.service.EnergyObjectService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Массовая загрузка: пакетная вставка JDBC (EnergyObjectImportService) против сохранения
+ * по одной строке через EnergyObjectService. Результат - строк в секунду
+ * (одна операция JMH = одна строка файла)
+ */
+public class ImportBenchmark extends AbstractContextBenchmark {
+    private static final int IMPORT_ROWS = 1000;
+    private static final String[] TYPES = {"АЭС", "ГЭС", "ТЭЦ", "ГРЭС", "СЭС", "ВЭС"};
+
+    private EnergyObjectImportService importService;
+    private EnergyObjectService energyObjectService;
+    private byte[] csv;
+
+    @Override
+    protected void init() {
+        importService = context.getBean(EnergyObjectImportService.class);
+        energyObjectService = context.getBean(EnergyObjectService.class);
+        StringBuilder file = new StringBuilder("Название;Тип;Местоположение;Мощность, МВт;Год ввода;КПД, %;Активен;Последнее ТО\n");
+        for (int i = 0; i < IMPORT_ROWS; i++) {
+            file.append("Загруженный объект ").append(i).append(';')
+                    .append(TYPES[i % TYPES.length]).append(";Регион ").append(i % 12).append(';')
+                    .append(100 + i % 900).append(';')
+                    .append(1960 + i % 60).append(';')
+                    .append(30 + i % 60).append(';')
+                    .append(i % 10 != 0 ? "Да" : "Нет").append(';')
+                    .append(LocalDate.of(2024, 1, 1).plusDays(i % 365)).append('\n');
+        }
+        csv = file.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(IMPORT_ROWS)
+    public ImportReport batchImport() throws IOException {
+        return importService.importCsv(new ByteArrayInputStream(csv));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(IMPORT_ROWS)
+    public long perRowSave() {
+        long lastId = 0;
+        for (int i = 0; i < IMPORT_ROWS; i++) {
+            EnergyObject energyObject = new EnergyObject();
+            energyObject.setName("Загруженный объект " + i);
+            energyObject.setType(TYPES[i % TYPES.length]);
+            energyObject.setLocation("Регион " + i % 12);
+            energyObject.setPower(100.0 + i % 900);
+            energyObject.setCommissioningYear(1960 + i % 60);
+            energyObject.setEfficiency(30.0 + i % 60);
+            energyObject.setActive(i % 10 != 0);
+            energyObject.setLastMaintenanceDate(LocalDate.of(2024, 1, 1).plusDays(i % 365));
+            lastId = energyObjectService.createEnergyObject(energyObject).getId();
+        }
+        return lastId;
+    }
+}
@@ -0,0 +1,43 @@
+package com.energy_company_v1.benchmark;
+
+import com.energy_company_v1.model.EnergyObject;
+import com.energy_company_v1.service.EnergyObjectService;
+import com.energy_company_v1.service.MaintenanceScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDate;
+
+/**
+ * Очередь плановых ТО: первая страница "сначала просроченные" и число просроченных
+ * по индексу (next_maintenance_due, id)
+ */
+public class MaintenanceBenchmark extends AbstractContextBenchmark {
+
+    private EnergyObjectService energyObjectService;
+    private LocalDate today;
+
+    @Override
+    protected void init() {
+        energyObjectService = context.getBean(EnergyObjectService.class);
+        // Синтетический парк вставлен в обход сервиса - даты ТО заполняются так же, как при старте
+        context.getBean(MaintenanceScheduler.class).rebuild();
+        today = LocalDate.now();
+    }
+
+    @Benchmark
+    public Slice<EnergyObject> overdueFirstPage() {
+        return energyObjectService.getMaintenanceQueue(false, today, PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Slice<EnergyObject> overdueOnlyPage() {
+        return energyObjectService.getMaintenanceQueue(true, today, PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public long countOverdue() {
+        return energyObjectService.countOverdueMaintenance(today);
+    }
+}
@@ -0,0 +1,47 @@
+package com.energy_company_v1.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверки пароля в секунду для разных алгоритмов и стоимости.
+ * Запуск по одному потоку на ядро (-t по числу ядер): результат / число потоков = входов/с на ядро.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    @Param({"bcrypt-10", "bcrypt-12", "argon2-19m"})
+    public String encoder;
+
+    private PasswordEncoder passwordEncoder;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (encoder) {
+            case "bcrypt-12":
+                passwordEncoder = new BCryptPasswordEncoder(12);
+                break;
+            case "argon2-19m":
+                passwordEncoder = new Argon2PasswordEncoder(16, 32, 1, 19456, 2);
+                break;
+            default:
+                passwordEncoder = new BCryptPasswordEncoder(10);
+        }
+        hash = passwordEncoder.encode("admin123");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches("admin123", hash);
+    }
+}
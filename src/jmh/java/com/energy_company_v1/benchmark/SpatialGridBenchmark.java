@@ -0,0 +1,80 @@
+package com.energy_company_v1.benchmark;
+
+import com.energy_company_v1.dto.MapPoint;
+import com.energy_company_v1.dto.MapViewport;
+import com.energy_company_v1.geo.SpatialGrid;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пространственный индекс карты без контекста Spring на points объектах, распределенных
+ * вокруг центров регионов (как в SyntheticFleetGenerator): видимая область всей страны
+ * (группы), области региона и города (точки или группы), k ближайших и перемещение объекта.
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="SpatialGridBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SpatialGridBenchmark {
+    private static final int POINT_LIMIT = 500;
+
+    @Param({"100000", "1000000"})
+    public int points;
+
+    @Param({"0.5"})
+    public double cellDegrees;
+
+    private SpatialGrid grid;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        grid = new SpatialGrid(cellDegrees);
+        Random generator = new Random(43);
+        for (int i = 0; i < points; i++) {
+            int region = generator.nextInt(SyntheticFleetGenerator.REGION_CENTERS.length);
+            double[] point = SyntheticFleetGenerator.randomPoint(generator, region);
+            grid.put(i, point[0], point[1], "ТЭЦ", generator.nextDouble() * 5000, true);
+        }
+        random = new Random(7);
+    }
+
+    // Вся страна на масштабе 3: только группы, собранные по ячейкам
+    @Benchmark
+    public MapViewport countryViewport() {
+        return grid.viewport(40, 19, 72, 180, 360.0 / (1 << 3) / 8, POINT_LIMIT);
+    }
+
+    // Область около Ленинградской области на масштабе 7
+    @Benchmark
+    public MapViewport regionViewport() {
+        return grid.viewport(58.5, 27.5, 61.5, 33.5, 360.0 / (1 << 7) / 8, POINT_LIMIT);
+    }
+
+    // Город на масштабе 12: немного точек
+    @Benchmark
+    public MapViewport cityViewport() {
+        double latitude = 59.9 + random.nextGaussian() * 0.5;
+        double longitude = 30.3 + random.nextGaussian() * 0.5;
+        return grid.viewport(latitude - 0.05, longitude - 0.1, latitude + 0.05, longitude + 0.1,
+                360.0 / (1 << 12) / 8, POINT_LIMIT);
+    }
+
+    @Benchmark
+    public List<MapPoint> nearest10() {
+        return grid.nearest(55.8 + random.nextGaussian(), 49.1 + random.nextGaussian(), 10, Double.POSITIVE_INFINITY);
+    }
+
+    // Обновление координат одного объекта (запись через EnergyObjectService)
+    @Benchmark
+    public void move() {
+        int id = random.nextInt(points);
+        grid.put(id, 50 + random.nextDouble() * 15, 30 + random.nextDouble() * 100, "ТЭЦ", 100, true);
+    }
+}
@@ -0,0 +1,42 @@
+package com.energy_company_v1.benchmark;
+
+import com.energy_company_v1.controller.EnergyObjectController;
+import com.energy_company_v1.dto.TypeStatistics;
+import com.energy_company_v1.repository.EnergyObjectRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.springframework.ui.ExtendedModelMap;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Страница статистики: чтение из кэша против агрегирующего запроса к БД
+ */
+public class StatisticsBenchmark extends AbstractContextBenchmark {
+
+    private EnergyObjectController energyObjectController;
+    private EnergyObjectRepository energyObjectRepository;
+
+    @Override
+    protected void init() {
+        energyObjectController = context.getBean(EnergyObjectController.class);
+        energyObjectRepository = context.getBean(EnergyObjectRepository.class);
+    }
+
+    @Benchmark
+    public ExtendedModelMap showStatistics() {
+        ExtendedModelMap model = new ExtendedModelMap();
+        energyObjectController.showStatistics(model);
+        return model;
+    }
+
+    @Benchmark
+    public Map<String, Object> enhancedStatistics() {
+        return energyObjectController.getEnhancedStatistics();
+    }
+
+    @Benchmark
+    public List<TypeStatistics> aggregateByTypeQuery() {
+        return energyObjectRepository.aggregateByType();
+    }
+}
@@ -0,0 +1,83 @@
+package com.energy_company_v1.benchmark;
+
+import com.energy_company_v1.repository.EnergyObjectRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Генератор синтетического парка энергообъектов (детерминированный, seed = 42)
+ */
+public class SyntheticFleetGenerator {
+    private static final String[] TYPES = {"АЭС", "ГЭС", "ТЭЦ", "ГРЭС", "СЭС", "ВЭС"};
+    private static final String[] REGIONS = {
+            "Ленинградская область", "Саратовская область", "Калининград", "Волгоград",
+            "Крым", "Адыгея", "Свердловская область", "Красноярский край", "Республика Татарстан",
+            "Мурманская область", "Ханты-Мансийский АО", "Приморский край"
+    };
+    // Примерные центры регионов (широта, долгота), в том же порядке, что и REGIONS
+    static final double[][] REGION_CENTERS = {
+            {59.9, 30.3}, {51.5, 46.0}, {54.7, 20.5}, {48.7, 44.5},
+            {45.0, 34.1}, {44.6, 40.1}, {56.8, 60.6}, {56.0, 92.9}, {55.8, 49.1},
+            {68.9, 33.1}, {61.0, 69.0}, {43.1, 131.9}
+    };
+    // Разброс объектов вокруг центра региона, градусов (среднеквадратичное отклонение)
+    static final double REGION_SPREAD_DEGREES = 1.5;
+    private static final String INSERT_SQL = "INSERT INTO energy_objects " +
+            "(name, type, location, power, commissioning_year, efficiency, active, last_maintenance_date, description, " +
+            "latitude, longitude, change_version, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, " + EnergyObjectRepository.NEXT_CHANGE_VERSION + ", CURRENT_TIMESTAMP)";
+    private static final int BATCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SyntheticFleetGenerator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void generate(int rows) {
+        Random random = new Random(42);
+        // Координаты из отдельного генератора: остальные поля совпадают с прежними прогонами
+        Random coordinates = new Random(43);
+        LocalDate today = LocalDate.now();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 1; i <= rows; i++) {
+            String type = TYPES[random.nextInt(TYPES.length)];
+            int regionIndex = random.nextInt(REGIONS.length);
+            String region = REGIONS[regionIndex];
+            double[] point = randomPoint(coordinates, regionIndex);
+            batch.add(new Object[]{
+                    type + " " + region + " №" + i,
+                    type,
+                    region,
+                    Math.round(random.nextDouble() * 5000 * 10.0) / 10.0,
+                    1950 + random.nextInt(75),
+                    Math.round((15 + random.nextDouble() * 75) * 10.0) / 10.0,
+                    random.nextInt(10) != 0,
+                    Date.valueOf(today.minusDays(random.nextInt(3 * 365))),
+                    "Синтетический объект " + i,
+                    point[0],
+                    point[1]
+            });
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        }
+    }
+
+    static double[] randomPoint(Random random, int regionIndex) {
+        double[] center = REGION_CENTERS[regionIndex];
+        double latitude = center[0] + random.nextGaussian() * REGION_SPREAD_DEGREES;
+        double longitude = center[1] + random.nextGaussian() * REGION_SPREAD_DEGREES;
+        return new double[]{Math.max(-90, Math.min(90, latitude)), Math.max(-180, Math.min(180, longitude))};
+    }
+}
@@ -0,0 +1,110 @@
+package com.energy_company_v1.benchmark;
+
+import com.energy_company_v1.dto.TelemetryBucket;
+import com.energy_company_v1.telemetry.TelemetryStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Хранилище телеметрии без контекста Spring: скорость приема показаний (точек в секунду,
+ * пачки по batchSize с шагом 1 с по objects объектам) и задержка выборки суток
+ * секундных показаний с прореживанием до 500 интервалов и часа без прореживания.
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="TelemetryStoreBenchmark"
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class TelemetryStoreBenchmark {
+    private static final long QUERY_OBJECT = 0;
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final Instant DAY_START = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Param({"1000"})
+    public int batchSize;
+
+    @Param({"100"})
+    public int objects;
+
+    private Path directory;
+    private TelemetryStore store;
+    private long[] timestamps;
+    private double[] values;
+    private long[] nextTimestamp;
+    private int nextObject;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("telemetry-benchmark");
+        store = new TelemetryStore(directory, 1024, Duration.ofDays(36_500));
+
+        // Сутки секундных показаний объекта для выборок: суточный профиль с шумом
+        long[] dayTimestamps = new long[SECONDS_PER_DAY];
+        double[] dayValues = new double[SECONDS_PER_DAY];
+        for (int i = 0; i < SECONDS_PER_DAY; i++) {
+            dayTimestamps[i] = DAY_START.toEpochMilli() + i * 1000L;
+            dayValues[i] = Math.round((120 + 80 * Math.sin(i * Math.PI / SECONDS_PER_DAY) + (i % 7)) * 10) / 10.0;
+        }
+        store.ingest(QUERY_OBJECT, dayTimestamps, dayValues, SECONDS_PER_DAY);
+        store.flush();
+
+        timestamps = new long[batchSize];
+        values = new double[batchSize];
+        nextTimestamp = new long[objects + 1];
+        for (int i = 1; i <= objects; i++) {
+            nextTimestamp[i] = DAY_START.toEpochMilli();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(1000) // = batchSize: результат в точках в секунду
+    public long ingestBatch() {
+        int objectId = nextObject % objects + 1;
+        nextObject++;
+        long timestamp = nextTimestamp[objectId];
+        for (int i = 0; i < batchSize; i++) {
+            timestamps[i] = timestamp;
+            values[i] = 100 + (timestamp / 1000 % 50) * 0.1;
+            timestamp += 1000;
+        }
+        nextTimestamp[objectId] = timestamp;
+        return store.ingest(objectId, timestamps, values, batchSize).getAccepted();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<TelemetryBucket> queryDayDownsampled() {
+        return store.query(QUERY_OBJECT, DAY_START, DAY_START.plus(Duration.ofDays(1)),
+                Duration.ofSeconds(SECONDS_PER_DAY / 500 + 1));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<TelemetryBucket> queryHourRaw() {
+        Instant from = DAY_START.plus(Duration.ofHours(12));
+        return store.query(QUERY_OBJECT, from, from.plus(Duration.ofHours(1)), Duration.ofSeconds(1));
+    }
+}
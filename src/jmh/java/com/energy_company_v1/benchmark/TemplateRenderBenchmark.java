@@ -0,0 +1,89 @@
+package com.energy_company_v1.benchmark;
+
+import com.energy_company_v1.EnergyCompanyV1Application;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время ответа страниц с тяжелыми шаблонами в режиме разработки (spring.thymeleaf.cache=false:
+ * разбор шаблона и рендеринг фрагментов на каждый запрос) и в prod-режиме (кэш шаблонов и фрагментов).
+ * Разбивка по шаблонам и видам списка в работающем приложении - метрика view.render.
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="TemplateRenderBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class TemplateRenderBenchmark {
+    private static final int ROWS = 10_000;
+
+    @Param({"false", "true"})
+    public boolean templateCache;
+
+    @Param({"/energy-objects?view=table&size=50", "/energy-objects?view=cards&size=50",
+            "/energy-objects/statistics"})
+    public String path;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI uri;
+
+    @Setup(Level.Trial)
+    public void startServer() throws Exception {
+        context = new SpringApplicationBuilder(EnergyCompanyV1Application.class)
+                .profiles("benchmark")
+                .run("--spring.main.web-application-type=servlet",
+                        "--server.port=0",
+                        "--spring.thymeleaf.cache=" + templateCache);
+        new SyntheticFleetGenerator(context.getBean(JdbcTemplate.class)).generate(ROWS);
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        uri = URI.create(baseUrl + path);
+
+        client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        login(baseUrl);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int renderPage() throws Exception {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Ответ " + response.statusCode() + " для " + uri);
+        }
+        return response.body().length;
+    }
+
+    // Сессия администратора из DataInitializer (CSRF отключен)
+    private void login(String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=admin&password=admin123"))
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        String location = response.headers().firstValue("Location").orElse("");
+        if (!location.contains("/energy-objects")) {
+            throw new IllegalStateException("Не удалось войти: " + response.statusCode() + " " + location);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.energy_company_v1.benchmark;
+
+import com.energy_company_v1.service.UserDetailsServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Загрузка пользователя с ролями при аутентификации
+ * (от размера парка не зависит: запускать с -p rows=10000)
+ */
+public class UserDetailsBenchmark extends AbstractContextBenchmark {
+
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Override
+    protected void init() {
+        userDetailsService = context.getBean(UserDetailsServiceImpl.class);
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        return userDetailsService.loadUserByUsername("admin");
+    }
+}
@@ -0,0 +1,131 @@
+package com.energy_company_v1.benchmark;
+
+import com.energy_company_v1.EnergyCompanyV1Application;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочный тест веб-слоя: пачка из concurrency одновременных запросов страницы списка
+ * (JDBC + Thymeleaf) при ограниченном пуле Hikari, в режиме виртуальных потоков и на пуле
+ * потоков платформы Tomcat. Результат - пачек в секунду; запросов в секунду = score * concurrency.
+ * sqlLogging=true - трассировка SQL и параметров, как в профиле dev (и прежде по умолчанию):
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="WebConcurrencyBenchmark -p sqlLogging=true,false"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class WebConcurrencyBenchmark {
+    private static final int ROWS = 100_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"true", "false"})
+    public boolean virtualThreads;
+
+    @Param({"100", "1000"})
+    public int concurrency;
+
+    @Param({"10"})
+    public int poolSize;
+
+    @Param({"false"})
+    public boolean sqlLogging;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private String baseUrl;
+    private int page;
+
+    @Setup(Level.Trial)
+    public void startServer() throws Exception {
+        // Аргументы командной строки перекрывают application-benchmark.properties
+        String sqlLevel = sqlLogging ? "DEBUG" : "WARN";
+        String bindLevel = sqlLogging ? "TRACE" : "WARN";
+        context = new SpringApplicationBuilder(EnergyCompanyV1Application.class)
+                .profiles("benchmark")
+                .run("--spring.main.web-application-type=servlet",
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                        "--logging.level.org.hibernate.SQL=" + sqlLevel,
+                        "--logging.level.org.hibernate.orm.jdbc.bind=" + bindLevel,
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=" + bindLevel);
+        new SyntheticFleetGenerator(context.getBean(JdbcTemplate.class)).generate(ROWS);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder()
+                .executor(clientExecutor)
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        login();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        if (clientExecutor != null) {
+            clientExecutor.close();
+        }
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int concurrentListRequests() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            page = (page + 1) % (ROWS / PAGE_SIZE);
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create(baseUrl + "/energy-objects?page=" + page + "&size=" + PAGE_SIZE))
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+
+        int ok = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() == 200) {
+                ok++;
+            }
+        }
+        if (ok != concurrency) {
+            throw new IllegalStateException("Успешных ответов " + ok + " из " + concurrency);
+        }
+        return ok;
+    }
+
+    // Сессия администратора из DataInitializer (CSRF отключен)
+    private void login() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=admin&password=admin123"))
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        String location = response.headers().firstValue("Location").orElse("");
+        if (!location.contains("/energy-objects")) {
+            throw new IllegalStateException("Не удалось войти: " + response.statusCode() + " " + location);
+        }
+    }
+}
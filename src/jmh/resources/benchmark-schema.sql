@@ -0,0 +1,7 @@
+CREATE SEQUENCE IF NOT EXISTS energy_objects_change_seq;
+INSERT INTO maintenance_intervals (type, interval_months) VALUES
+    ('АЭС', 12), ('ГЭС', 24), ('ТЭС', 12), ('ТЭЦ', 12), ('ГРЭС', 12), ('СЭС', 6), ('ВЭС', 6);
+CREATE TABLE IF NOT EXISTS energy_objects_change_lock (id SMALLINT PRIMARY KEY);
+INSERT INTO energy_objects_change_lock (id) VALUES (1);
+CREATE TABLE IF NOT EXISTS maintenance_announcements (id SMALLINT PRIMARY KEY, announced_through DATE);
+INSERT INTO maintenance_announcements (id) VALUES (1);
@@ -2,8 +2,12 @@ package com.energy_company_v1;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@EnableAsync
 public class  EnergyCompanyV1Application {
     public static void main(String[] args) {
         SpringApplication.run(EnergyCompanyV1Application.class, args);
@@ -0,0 +1,13 @@
+package com.energy_company_v1.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    // Кэш данных пользователя для аутентификации
+    public static final String USER_DETAILS_CACHE = "userDetails";
+    // Кэш данных профиля пользователя (UserProfile) для страниц профиля
+    public static final String USERS_CACHE = "users";
+}
@@ -0,0 +1,46 @@
+package com.energy_company_v1.config;
+
+import com.energy_company_v1.repository.EnergyObjectRepository;
+import com.energy_company_v1.service.EnergyObjectCacheEvictor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Номера изменений для строк, записанных в обход сервиса: начальные данные и строки,
+ * существовавшие до появления ленты изменений. Последовательность создает миграция V2.
+ */
+@Component
+public class ChangeFeedInitializer {
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EnergyObjectCacheEvictor cacheEvictor;
+
+    public ChangeFeedInitializer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 EnergyObjectCacheEvictor cacheEvictor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheEvictor = cacheEvictor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void assignMissingVersions() {
+        int updated = transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForObject(EnergyObjectRepository.LOCK_CHANGE_VERSIONS, Integer.class);
+            return jdbcTemplate.update("UPDATE energy_objects SET change_version = "
+                    + EnergyObjectRepository.NEXT_CHANGE_VERSION + ", updated_at = CURRENT_TIMESTAMP "
+                    + "WHERE change_version IS NULL");
+        });
+        if (updated > 0) {
+            log.info("Номер изменения присвоен {} энергообъектам", updated);
+            cacheEvictor.evictAll();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.energy_company_v1.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * Системные часы для компонентов, работающих с датами (планировщик ТО); в тестах подменяются
+ */
+@Configuration
+public class ClockConfig {
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
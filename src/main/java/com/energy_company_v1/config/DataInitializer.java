@@ -2,6 +2,7 @@ package com.energy_company_v1.config;
 
 import com.energy_company_v1.model.*;
 import com.energy_company_v1.repository.*;
+import com.energy_company_v1.service.RoleRegistry;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
@@ -13,15 +14,18 @@ import java.util.*;
 public class DataInitializer implements CommandLineRunner {
 
     private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final UserRepository userRepository;
     private final EnergyObjectRepository energyObjectRepository;
     private final PasswordEncoder passwordEncoder;
 
     public DataInitializer(RoleRepository roleRepository,
+                           RoleRegistry roleRegistry,
                            UserRepository userRepository,
                            EnergyObjectRepository energyObjectRepository,
                            PasswordEncoder passwordEncoder) {
         this.roleRepository = roleRepository;
+        this.roleRegistry = roleRegistry;
         this.userRepository = userRepository;
         this.energyObjectRepository = energyObjectRepository;
         this.passwordEncoder = passwordEncoder;
@@ -43,6 +47,7 @@ public class DataInitializer implements CommandLineRunner {
             roleAdmin.setName(ERole.ROLE_ADMIN);
             roleRepository.save(roleAdmin);
         }
+        roleRegistry.refresh();
 
         // Создание тестового администратора
         if (userRepository.findByUsername("admin").isEmpty()) {
@@ -51,8 +56,7 @@ public class DataInitializer implements CommandLineRunner {
             admin.setEmail("admin@energycompany.com");
             admin.setPassword(passwordEncoder.encode("admin123"));
 
-            Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
-                    .orElseThrow(() -> new RuntimeException("Роль ADMIN не найдена"));
+            Role adminRole = roleRegistry.get(ERole.ROLE_ADMIN);
 
             // ИСПРАВЛЕНИЕ: используем Set вместо List
             Set<Role> roles = new HashSet<>();
@@ -67,8 +71,7 @@ public class DataInitializer implements CommandLineRunner {
             moderator.setEmail("moderator@energycompany.com");
             moderator.setPassword(passwordEncoder.encode("mod123"));
 
-            Role modRole = roleRepository.findByName(ERole.ROLE_MODERATOR)
-                    .orElseThrow(() -> new RuntimeException("Роль MODERATOR не найдена"));
+            Role modRole = roleRegistry.get(ERole.ROLE_MODERATOR);
 
             Set<Role> modRoles = new HashSet<>();
             modRoles.add(modRole);
@@ -82,8 +85,7 @@ public class DataInitializer implements CommandLineRunner {
             user.setEmail("user@energycompany.com");
             user.setPassword(passwordEncoder.encode("user123"));
 
-            Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                    .orElseThrow(() -> new RuntimeException("Роль USER не найдена"));
+            Role userRole = roleRegistry.get(ERole.ROLE_USER);
 
             Set<Role> userRoles = new HashSet<>();
             userRoles.add(userRole);
@@ -0,0 +1,46 @@
+package com.energy_company_v1.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.CssLinkResourceTransformer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Статические ресурсы под /assets/**: собственные CSS/JS из static/ и библиотеки
+ * (Bootstrap, иконки, Chart.js, SweetAlert2), распакованные сборкой в static/vendor.
+ * Ссылки @{/assets/...} в шаблонах получают хэш содержимого в имени файла
+ * (style-&lt;md5&gt;.css), поэтому ответ кэшируется браузером навсегда. Если рядом лежат
+ * сжатые при сборке .br/.gz (JS, SVG), отдаются они (по Accept-Encoding). CSS при сборке
+ * не сжимается: ссылки url(...) в нем переписываются на лету, а сжимает его сервер
+ * (server.compression).
+ * Фильтры Spring Security этот путь пропускают (SecurityConfig.webSecurityCustomizer).
+ */
+@Configuration
+public class StaticAssetsConfig implements WebMvcConfigurer {
+    public static final String ASSETS_PATH = "/assets/**";
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler(ASSETS_PATH)
+                .addResourceLocations("classpath:/static/")
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"))
+                // url(...) внутри CSS (шрифты иконок) тоже переписываются на версионные имена
+                .addTransformer(new CssLinkResourceTransformer());
+    }
+
+    // Переписывает ссылки на ресурсы при рендеринге шаблонов (@{...} -> имя с хэшем)
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+}
@@ -1,14 +1,22 @@
 package com.energy_company_v1.controller;
 
+import com.energy_company_v1.dto.UserSummary;
 import com.energy_company_v1.model.User;
+import com.energy_company_v1.service.RoleRegistry;
 import com.energy_company_v1.service.UserService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 @Controller
@@ -17,18 +25,64 @@ import java.util.Set;
 public class AdminController {
 
     private final UserService userService;
+    private final RoleRegistry roleRegistry;
 
-    public AdminController(UserService userService) {
+    public AdminController(UserService userService, RoleRegistry roleRegistry) {
         this.userService = userService;
+        this.roleRegistry = roleRegistry;
     }
 
     // Страница управления пользователями
     @GetMapping("/users")
-    public String manageUsers(Model model) {
-        model.addAttribute("users", userService.getAllUsers());
+    public String manageUsers(Model model,
+                              @RequestParam(required = false) String search,
+                              @RequestParam(defaultValue = "0") int page,
+                              @RequestParam(defaultValue = "50") int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, 200)),
+                Sort.by("username"));
+        Page<UserSummary> users = userService.getUserSummaries(search, pageable);
+
+        model.addAttribute("users", users);
+        model.addAttribute("search", search);
+        model.addAttribute("currentPage", users.getNumber());
+        model.addAttribute("totalPages", users.getTotalPages());
         return "admin/users";
     }
 
+    // Назначение ролей сразу нескольким пользователям
+    @PostMapping("/users/bulk/roles")
+    public String bulkUpdateRoles(@RequestParam(value = "ids", required = false) List<Long> ids,
+                                  @RequestParam(value = "roles", required = false) Set<String> roles,
+                                  RedirectAttributes redirectAttributes) {
+        try {
+            int updated = userService.changeRolesInBulk(ids, roles);
+            redirectAttributes.addFlashAttribute("successMessage",
+                    "Роли обновлены у пользователей: " + updated);
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("errorMessage",
+                    "Ошибка при обновлении ролей: " + e.getMessage());
+        }
+
+        return "redirect:/admin/users";
+    }
+
+    // Удаление нескольких пользователей
+    @PostMapping("/users/bulk/delete")
+    public String bulkDeleteUsers(@RequestParam(value = "ids", required = false) List<Long> ids,
+                                  Authentication authentication,
+                                  RedirectAttributes redirectAttributes) {
+        try {
+            int deleted = userService.deleteUsersInBulk(ids, authentication.getName());
+            redirectAttributes.addFlashAttribute("successMessage",
+                    "Удалено пользователей: " + deleted);
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("errorMessage",
+                    "Ошибка при удалении пользователей: " + e.getMessage());
+        }
+
+        return "redirect:/admin/users";
+    }
+
     // Форма редактирования ролей пользователя
     @GetMapping("/users/edit/{id}")
     public String editUserRolesForm(@PathVariable Long id, Model model) {
@@ -60,6 +114,14 @@ public class AdminController {
         return "redirect:/admin/users";
     }
 
+    // Перезагрузка справочника ролей из БД
+    @PostMapping("/roles/refresh")
+    public String refreshRoles(RedirectAttributes redirectAttributes) {
+        roleRegistry.refresh();
+        redirectAttributes.addFlashAttribute("successMessage", "Справочник ролей обновлен!");
+        return "redirect:/admin/users";
+    }
+
     // Удаление пользователя
     @GetMapping("/users/delete/{id}")
     public String deleteUser(@PathVariable Long id, RedirectAttributes redirectAttributes) {
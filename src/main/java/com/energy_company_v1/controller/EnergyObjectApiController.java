@@ -0,0 +1,146 @@
+package com.energy_company_v1.controller;
+
+import com.energy_company_v1.dto.EnergyObjectFilter;
+import com.energy_company_v1.model.EnergyObject;
+import com.energy_company_v1.service.EnergyObjectExportService;
+import com.energy_company_v1.service.EnergyObjectFieldSet;
+import com.energy_company_v1.service.EnergyObjectService;
+import com.energy_company_v1.service.EnergyObjectTableVersion;
+import com.energy_company_v1.service.KeysetCursor;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * REST API реестра энергообъектов для внешних систем (SCADA и т.п.).
+ * Ответы помечены ETag по версии таблицы (наибольшему номеру изменения): пока данные не менялись,
+ * повторный запрос с If-None-Match получает 304 после двух чтений MAX по индексу, без выборки строк.
+ */
+@RestController
+@RequestMapping("/api/v1/energy-objects")
+public class EnergyObjectApiController {
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_CHANGES = 100_000;
+
+    private final EnergyObjectService energyObjectService;
+    private final EnergyObjectExportService energyObjectExportService;
+    private final EnergyObjectTableVersion tableVersion;
+
+    public EnergyObjectApiController(EnergyObjectService energyObjectService,
+                                     EnergyObjectExportService energyObjectExportService,
+                                     EnergyObjectTableVersion tableVersion) {
+        this.energyObjectService = energyObjectService;
+        this.energyObjectExportService = energyObjectExportService;
+        this.tableVersion = tableVersion;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PagedModel<Map<String, Object>>> getEnergyObjects(
+            EnergyObjectFilter filter,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(etag("json"))) {
+            return null;
+        }
+
+        EnergyObjectFieldSet fieldSet = EnergyObjectFieldSet.parse(fields);
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)),
+                toSort(sortBy, direction));
+        Page<EnergyObject> result = energyObjectService.findEnergyObjects(filter, pageable);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(new PagedModel<>(result.map(fieldSet::project)));
+    }
+
+    /**
+     * Вся выборка по фильтру без пагинации: строки пишутся в ответ по мере чтения курсора БД
+     */
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public void streamEnergyObjects(EnergyObjectFilter filter,
+                                    @RequestParam(required = false) String fields,
+                                    @RequestParam(defaultValue = "id") String sortBy,
+                                    @RequestParam(defaultValue = "asc") String direction,
+                                    WebRequest webRequest,
+                                    HttpServletResponse response) throws IOException {
+        if (webRequest.checkNotModified(etag("ndjson"))) {
+            return;
+        }
+
+        EnergyObjectFieldSet fieldSet = EnergyObjectFieldSet.parse(fields);
+        Sort sort = toSort(sortBy, direction);
+
+        response.setContentType(APPLICATION_NDJSON_VALUE + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        energyObjectExportService.exportNdjson(filter, sort, fieldSet, response.getOutputStream());
+    }
+
+    /**
+     * Лента изменений для зеркал: объекты, измененные после номера since, и удаления.
+     * Следующий запрос - с since, равным changeVersion последней полученной строки.
+     */
+    @GetMapping(value = "/changes", produces = APPLICATION_NDJSON_VALUE)
+    public void streamChanges(@RequestParam long since,
+                              @RequestParam(defaultValue = "10000") int limit,
+                              WebRequest webRequest,
+                              HttpServletResponse response) throws IOException {
+        if (webRequest.checkNotModified(etag("changes"))) {
+            return;
+        }
+
+        response.setContentType(APPLICATION_NDJSON_VALUE + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        energyObjectExportService.exportChanges(Math.max(since, 0), Math.max(1, Math.min(limit, MAX_CHANGES)),
+                response.getOutputStream());
+    }
+
+    @ExceptionHandler({IllegalArgumentException.class, BindException.class,
+            MethodArgumentTypeMismatchException.class, MissingServletRequestParameterException.class})
+    public ResponseEntity<ProblemDetail> handleBadRequest(Exception e) {
+        return ResponseEntity.badRequest()
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
+
+    // Представления JSON и NDJSON одного URL различаются, поэтому формат входит в ETag
+    private String etag(String format) {
+        return "\"" + tableVersion.current() + "-" + format + "\"";
+    }
+
+    private static Sort toSort(String sortBy, String direction) {
+        if (!KeysetCursor.SORTABLE_PROPERTIES.contains(sortBy)) {
+            throw new IllegalArgumentException("Сортировка возможна по полям: "
+                    + String.join(", ", KeysetCursor.SORTABLE_PROPERTIES));
+        }
+        Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(sortDirection, sortBy);
+        return "id".equals(sortBy) ? sort : sort.and(Sort.by(sortDirection, "id"));
+    }
+}
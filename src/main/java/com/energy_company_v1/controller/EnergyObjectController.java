@@ -1,38 +1,75 @@
 package com.energy_company_v1.controller;
 
+import com.energy_company_v1.dto.CursorPage;
+import com.energy_company_v1.dto.FleetStatistics;
+import com.energy_company_v1.dto.ImportReport;
 import com.energy_company_v1.model.EnergyObject;
 import com.energy_company_v1.repository.UserRepository;
+import com.energy_company_v1.service.EnergyObjectExportService;
+import com.energy_company_v1.service.EnergyObjectImportService;
 import com.energy_company_v1.service.EnergyObjectService;
+import com.energy_company_v1.service.FleetEventBroadcaster;
+import com.energy_company_v1.service.KeysetCursor;
+import com.energy_company_v1.service.MaintenanceScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 @Controller
 @RequestMapping("/energy-objects")
 public class EnergyObjectController {
+    private static final Logger log = LoggerFactory.getLogger(EnergyObjectController.class);
+
+    // Вид списка: карточки или таблица. Рендерится только выбранный; выбор запоминается в cookie
+    private static final String VIEW_CARDS = "cards";
+    private static final String VIEW_TABLE = "table";
+    private static final String VIEW_COOKIE = "energyObjectsView";
+    private static final int VIEW_COOKIE_MAX_AGE = 60 * 60 * 24 * 365;
 
     private final EnergyObjectService energyObjectService;
+    private final EnergyObjectExportService energyObjectExportService;
+    private final EnergyObjectImportService energyObjectImportService;
+    private final FleetEventBroadcaster fleetEventBroadcaster;
+    private final MaintenanceScheduler maintenanceScheduler;
     private final UserRepository userRepository; // Добавляем репозиторий пользователей
 
     public EnergyObjectController(EnergyObjectService energyObjectService,
+                                  EnergyObjectExportService energyObjectExportService,
+                                  EnergyObjectImportService energyObjectImportService,
+                                  FleetEventBroadcaster fleetEventBroadcaster,
+                                  MaintenanceScheduler maintenanceScheduler,
                                   UserRepository userRepository) { // Добавляем в конструктор
         this.energyObjectService = energyObjectService;
+        this.energyObjectExportService = energyObjectExportService;
+        this.energyObjectImportService = energyObjectImportService;
+        this.fleetEventBroadcaster = fleetEventBroadcaster;
+        this.maintenanceScheduler = maintenanceScheduler;
         this.userRepository = userRepository;
     }
 
@@ -42,7 +79,20 @@ public class EnergyObjectController {
                                     @RequestParam(defaultValue = "id") String sortBy,
                                     @RequestParam(defaultValue = "desc") String direction,
                                     @RequestParam(defaultValue = "0") int page,
-                                    @RequestParam(defaultValue = "10") int size) {
+                                    @RequestParam(defaultValue = "10") int size,
+                                    @RequestParam(defaultValue = "page") String mode,
+                                    @RequestParam(required = false) String after,
+                                    @RequestParam(required = false) String before,
+                                    @RequestParam(required = false) String view,
+                                    @CookieValue(name = VIEW_COOKIE, required = false) String savedView,
+                                    @RequestHeader(name = HttpHeaders.USER_AGENT, required = false) String userAgent,
+                                    HttpServletResponse response) {
+
+        model.addAttribute("mode", mode);
+        model.addAttribute("viewMode", resolveViewMode(view, savedView, userAgent, response));
+        if ("cursor".equals(mode)) {
+            return listEnergyObjectsByCursor(model, search, sortBy, direction, size, after, before);
+        }
 
         try {
             Page<EnergyObject> energyObjectsPage;
@@ -51,22 +101,31 @@ public class EnergyObjectController {
             Sort.Direction sortDirection = "asc".equalsIgnoreCase(direction)
                     ? Sort.Direction.ASC : Sort.Direction.DESC;
 
-            // Создаем объект сортировки
-            Sort sort = Sort.by(sortDirection, sortBy);
+            // Создаем объект сортировки; id добавляется для стабильного порядка страниц.
+            // Сортировка по релевантности - это отсутствие явной сортировки при поиске
+            Sort sort;
+            if ("relevance".equals(sortBy)) {
+                sort = Sort.unsorted();
+            } else {
+                sort = Sort.by(sortDirection, sortBy);
+                if (!"id".equals(sortBy)) {
+                    sort = sort.and(Sort.by(sortDirection, "id"));
+                }
+            }
             Pageable pageable = PageRequest.of(page, size, sort);
 
             // Поиск с учетом ключевого слова (теперь search вместо keyword)
             if (search != null && !search.trim().isEmpty()) {
                 energyObjectsPage = energyObjectService.searchEnergyObjects(search, pageable);
             } else {
+                if (sort.isUnsorted()) {
+                    pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"));
+                }
                 energyObjectsPage = energyObjectService.getAllEnergyObjects(pageable);
             }
 
-            // Для отладки
-            System.out.println("=== ПАРАМЕТРЫ ===");
-            System.out.println("Поиск: " + search);
-            System.out.println("Сортировка по: " + sortBy);
-            System.out.println("Направление: " + direction);
+            log.debug("Список энергообъектов: search={}, sortBy={}, direction={}, page={}",
+                    search, sortBy, direction, page);
 
             // Передаем данные в модель
             model.addAttribute("energyObjects", energyObjectsPage);
@@ -78,8 +137,7 @@ public class EnergyObjectController {
             model.addAttribute("direction", direction);
 
         } catch (Exception e) {
-            System.out.println("Ошибка: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Ошибка при получении списка энергообъектов", e);
 
             model.addAttribute("energyObjects", Page.empty());
             model.addAttribute("currentPage", 0);
@@ -93,6 +151,148 @@ public class EnergyObjectController {
         return "energy-objects/list";
     }
 
+    // Явный выбор (параметр view) запоминается; без него - сохраненный, иначе по User-Agent:
+    // мобильным карточки, остальным таблица
+    private static String resolveViewMode(String view, String savedView, String userAgent,
+                                          HttpServletResponse response) {
+        if (VIEW_CARDS.equals(view) || VIEW_TABLE.equals(view)) {
+            if (!view.equals(savedView)) {
+                Cookie cookie = new Cookie(VIEW_COOKIE, view);
+                cookie.setMaxAge(VIEW_COOKIE_MAX_AGE);
+                cookie.setHttpOnly(true);
+                response.addCookie(cookie);
+            }
+            return view;
+        }
+        if (VIEW_CARDS.equals(savedView) || VIEW_TABLE.equals(savedView)) {
+            return savedView;
+        }
+        return userAgent != null && userAgent.contains("Mobi") ? VIEW_CARDS : VIEW_TABLE;
+    }
+
+    // Курсорный режим списка: глубокие страницы стоят столько же, сколько первая
+    private String listEnergyObjectsByCursor(Model model, String search, String sortBy, String direction,
+                                             int size, String after, String before) {
+        Sort.Direction sortDirection = "asc".equalsIgnoreCase(direction)
+                ? Sort.Direction.ASC : Sort.Direction.DESC;
+        int limit = Math.max(1, Math.min(size, 100));
+        try {
+            CursorPage<EnergyObject> cursorPage = energyObjectService.scrollEnergyObjects(
+                    search, sortBy, sortDirection, after, before, limit, true);
+
+            model.addAttribute("energyObjects", new PageImpl<>(cursorPage.getContent()));
+            model.addAttribute("cursorPage", cursorPage);
+            model.addAttribute("totalItems", cursorPage.getApproximateTotal());
+            model.addAttribute("sortBy", cursorPage.getSortBy());
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("energyObjects", Page.empty());
+            model.addAttribute("errorMessage", e.getMessage());
+            model.addAttribute("sortBy", sortBy);
+        }
+        model.addAttribute("currentPage", 0);
+        model.addAttribute("totalPages", 0);
+        model.addAttribute("search", search);
+        model.addAttribute("direction", direction);
+        return "energy-objects/list";
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<EnergyObject>> scrollEnergyObjects(
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean total) {
+        Sort.Direction sortDirection = "asc".equalsIgnoreCase(direction)
+                ? Sort.Direction.ASC : Sort.Direction.DESC;
+        int limit = Math.max(1, Math.min(size, 100));
+        try {
+            return ResponseEntity.ok(energyObjectService.scrollEnergyObjects(
+                    search, sortBy, sortDirection, after, before, limit, total));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Потоковая выгрузка с теми же параметрами поиска и сортировки, что и у списка
+    @GetMapping("/export")
+    public void exportEnergyObjects(@RequestParam(required = false) String search,
+                                    @RequestParam(defaultValue = "id") String sortBy,
+                                    @RequestParam(defaultValue = "desc") String direction,
+                                    @RequestParam(value = "export", defaultValue = "excel") String format,
+                                    HttpServletResponse response) throws IOException {
+        Sort.Direction sortDirection = "asc".equalsIgnoreCase(direction)
+                ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = "relevance".equals(sortBy) && search != null && !search.trim().isEmpty()
+                ? Sort.unsorted()
+                : Sort.by(sortDirection, KeysetCursor.SORTABLE_PROPERTIES.contains(sortBy) ? sortBy : "id");
+
+        if ("csv".equalsIgnoreCase(format)) {
+            response.setContentType("text/csv; charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"energy-objects.csv\"");
+            energyObjectExportService.exportCsv(search, sort, response.getOutputStream());
+        } else {
+            response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"energy-objects.xlsx\"");
+            energyObjectExportService.exportXlsx(search, sort, response.getOutputStream());
+        }
+    }
+
+    // Поток изменений парка для открытых страниц списка и статистики (Server-Sent Events)
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter streamFleetEvents() {
+        return fleetEventBroadcaster.subscribe();
+    }
+
+    // Очередь плановых ТО: сначала просроченные, затем по ближайшей дате
+    @GetMapping("/maintenance")
+    public String maintenanceQueue(Model model,
+                                   @RequestParam(defaultValue = "0") int page,
+                                   @RequestParam(defaultValue = "20") int size,
+                                   @RequestParam(defaultValue = "false") boolean overdue) {
+        LocalDate today = LocalDate.now();
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, 100)));
+        Slice<EnergyObject> queue = energyObjectService.getMaintenanceQueue(overdue, today, pageable);
+
+        model.addAttribute("energyObjects", queue);
+        model.addAttribute("overdueCount", energyObjectService.countOverdueMaintenance(today));
+        model.addAttribute("today", today);
+        model.addAttribute("currentPage", queue.getNumber());
+        model.addAttribute("size", queue.getSize());
+        model.addAttribute("overdue", overdue);
+        return "energy-objects/maintenance";
+    }
+
+    @PostMapping("/maintenance/{id}/done")
+    @PreAuthorize("hasRole('MODERATOR') or hasRole('ADMIN')")
+    public String recordMaintenance(@PathVariable Long id,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "false") boolean overdue,
+                                    RedirectAttributes redirectAttributes) {
+        try {
+            EnergyObject energyObject = energyObjectService.recordMaintenance(id, LocalDate.now());
+            redirectAttributes.addFlashAttribute("successMessage", "ТО объекта '" + energyObject.getName()
+                    + "' отмечено, следующее - " + energyObject.getNextMaintenanceDue());
+        } catch (RuntimeException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Ошибка при отметке ТО: " + e.getMessage());
+        }
+        return "redirect:/energy-objects/maintenance?page=" + page + "&overdue=" + overdue;
+    }
+
+    // После правки справочника maintenance_intervals
+    @PostMapping("/maintenance/recompute")
+    @PreAuthorize("hasRole('ADMIN')")
+    public String recomputeMaintenance(RedirectAttributes redirectAttributes) {
+        int updated = maintenanceScheduler.recomputeAll();
+        redirectAttributes.addFlashAttribute("successMessage",
+                "Даты ТО пересчитаны, изменились у " + updated + " объектов");
+        return "redirect:/energy-objects/maintenance";
+    }
+
+    // Устарело: внешним системам - /api/v1/energy-objects (пагинация, фильтры, ETag, NDJSON)
     @GetMapping("/all")
     public ResponseEntity<List<EnergyObject>> getAllEnergyObjects() {
         try {
@@ -118,23 +318,18 @@ public class EnergyObjectController {
                                      BindingResult result,
                                      RedirectAttributes redirectAttributes) {
 
-        System.out.println("=== POST /create ===");
-        System.out.println("Объект из формы: " + energyObject.toString());
-
         if (result.hasErrors()) {
-            System.out.println("Ошибки валидации: " + result.getAllErrors());
+            log.debug("Ошибки валидации при создании энергообъекта: {}", result.getAllErrors());
             return "energy-objects/create";
         }
 
         try {
             EnergyObject created = energyObjectService.createEnergyObject(energyObject);
-            System.out.println("Успешно создан объект ID: " + created.getId());
 
             redirectAttributes.addFlashAttribute("success",
                     "Энергообъект '" + created.getName() + "' успешно создан!");
         } catch (Exception e) {
-            System.out.println("Ошибка при создании: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Ошибка при создании энергообъекта", e);
 
             redirectAttributes.addFlashAttribute("error",
                     "Ошибка при создании: " + e.getMessage());
@@ -143,6 +338,25 @@ public class EnergyObjectController {
         return "redirect:/energy-objects";
     }
 
+    // Массовая загрузка из CSV или JSON (массив или NDJSON) с построчным отчетом об ошибках
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('MODERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<ImportReport> importEnergyObjects(@RequestParam("file") MultipartFile file)
+            throws IOException {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String filename = file.getOriginalFilename() != null
+                ? file.getOriginalFilename().toLowerCase() : "";
+        try (InputStream inputStream = file.getInputStream()) {
+            ImportReport report = filename.endsWith(".json") || filename.endsWith(".ndjson")
+                    ? energyObjectImportService.importJson(inputStream)
+                    : energyObjectImportService.importCsv(inputStream);
+            return ResponseEntity.ok(report);
+        }
+    }
+
     @GetMapping("/edit/{id}")
     public String editForm(@PathVariable Long id, Model model) {
         try {
@@ -185,12 +399,8 @@ public class EnergyObjectController {
     }
 
     public Map<String, Object> getEnhancedStatistics() {
-        ResponseEntity<List<EnergyObject>> response = getAllEnergyObjects();
-        List<EnergyObject> allObjects = new ArrayList<>();
-        if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-            allObjects = response.getBody();
-        }
-        long totalObjects = allObjects.size();
+        FleetStatistics statistics = energyObjectService.getFleetStatistics();
+        long totalObjects = statistics.getTotalObjects();
 
         if (totalObjects == 0) {
             return Map.of(
@@ -206,160 +416,53 @@ public class EnergyObjectController {
             );
         }
 
-        // Базовая статистика
-        long activeObjects = allObjects.stream()
-                .filter(EnergyObject::getActive)
-                .count();
-        long inactiveObjects = totalObjects - activeObjects;
-
-        Double totalPower = allObjects.stream()
-                .mapToDouble(EnergyObject::getPower)
-                .sum();
-
-        Double averagePower = totalPower / totalObjects;
-
-        Double averageEfficiency = allObjects.stream()
-                .mapToDouble(EnergyObject::getEfficiency)
-                .average()
-                .orElse(0.0);
-
-        // Распределение по типам
-        Map<String, Long> typeDistribution = allObjects.stream()
-                .collect(Collectors.groupingBy(
-                        EnergyObject::getType,
-                        Collectors.counting()
-                ));
-
-        Map<String, Double> typePercentages = typeDistribution.entrySet()
-                .stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> Math.round((entry.getValue() * 100.0 / totalObjects) * 10.0) / 10.0
-                ));
-
-        // Мощность по типам
-        Map<String, Double> powerByType = allObjects.stream()
-                .collect(Collectors.groupingBy(
-                        EnergyObject::getType,
-                        Collectors.summingDouble(EnergyObject::getPower)
-                ));
-
-        // Средний КПД по типам
-        Map<String, Double> efficiencyByType = allObjects.stream()
-                .collect(Collectors.groupingBy(
-                        EnergyObject::getType,
-                        Collectors.averagingDouble(EnergyObject::getEfficiency)
-                ));
-
         // Самый старый и самый новый объекты
-        EnergyObject oldestObject = allObjects.stream()
-                .min((o1, o2) -> o1.getCommissioningYear().compareTo(o2.getCommissioningYear()))
-                .orElse(null);
-
-        EnergyObject newestObject = allObjects.stream()
-                .max((o1, o2) -> o1.getCommissioningYear().compareTo(o2.getCommissioningYear()))
-                .orElse(null);
+        EnergyObject oldestObject = energyObjectService.getOldestEnergyObject().orElse(null);
+        EnergyObject newestObject = energyObjectService.getNewestEnergyObject().orElse(null);
 
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalObjects", totalObjects);
-        stats.put("activeObjects", activeObjects);
-        stats.put("inactiveObjects", inactiveObjects);
-        stats.put("totalPower", Math.round(totalPower * 100.0) / 100.0);
-        stats.put("averagePower", Math.round(averagePower * 100.0) / 100.0);
-        stats.put("averageEfficiency", Math.round(averageEfficiency * 10.0) / 10.0);
-        stats.put("typeDistribution", typeDistribution);
-        stats.put("typePercentages", typePercentages);
-        stats.put("powerByType", powerByType);
-        stats.put("efficiencyByType", efficiencyByType);
+        stats.put("activeObjects", statistics.getActiveObjects());
+        stats.put("inactiveObjects", statistics.getInactiveObjects());
+        stats.put("totalPower", Math.round(statistics.getTotalPower() * 100.0) / 100.0);
+        stats.put("averagePower", Math.round(statistics.getAveragePower() * 100.0) / 100.0);
+        stats.put("averageEfficiency", Math.round(statistics.getAverageEfficiency() * 10.0) / 10.0);
+        stats.put("typeDistribution", statistics.getTypeCounts());
+        stats.put("typePercentages", statistics.getTypePercentages());
+        stats.put("powerByType", statistics.getPowerByType());
+        stats.put("efficiencyByType", statistics.getAvgEfficiencyByType());
         stats.put("oldestObject", oldestObject);
         stats.put("newestObject", newestObject);
-        stats.put("activePercentage", Math.round((activeObjects * 100.0 / totalObjects) * 10.0) / 10.0);
+        stats.put("activePercentage", statistics.getActivePercentage());
         return stats;
     }
     @GetMapping("/statistics")
     @PreAuthorize("hasAnyRole('USER', 'MODERATOR', 'ADMIN')")
     public String showStatistics(Model model) {
         try {
-            // Получаем все объекты
-            List<EnergyObject> allObjects = energyObjectService.getAllEnergyObjects();
+            // Счетчики по типам из FleetStatisticsCache: поддерживаются дельтами изменений, без запроса к БД
+            FleetStatistics statistics = energyObjectService.getFleetStatistics();
 
-            if (allObjects.isEmpty()) {
+            if (statistics.isEmpty()) {
                 // Если нет объектов, возвращаем пустую статистику
                 model.addAttribute("errorMessage", "Нет данных для отображения статистики");
                 return "energy-objects/statistics";
             }
 
-            long totalObjects = allObjects.size();
-            long activeObjects = allObjects.stream()
-                    .filter(EnergyObject::getActive)
-                    .count();
-            long inactiveObjects = totalObjects - activeObjects;
-
-            // Вычисляем проценты
-            double activePercentage = (totalObjects > 0) ?
-                    Math.round((activeObjects * 100.0 / totalObjects) * 10.0) / 10.0 : 0.0;
-            double inactivePercentage = (totalObjects > 0) ?
-                    Math.round((inactiveObjects * 100.0 / totalObjects) * 10.0) / 10.0 : 0.0;
-
-            // Статистика по типам с процентами
-            Map<String, Long> typeCounts = allObjects.stream()
-                    .collect(Collectors.groupingBy(
-                            EnergyObject::getType,
-                            Collectors.counting()
-                    ));
-
-            Map<String, Double> typePercentages = new HashMap<>();
-            for (Map.Entry<String, Long> entry : typeCounts.entrySet()) {
-                double percentage = Math.round((entry.getValue() * 100.0 / totalObjects) * 10.0) / 10.0;
-                typePercentages.put(entry.getKey(), percentage);
-            }
-
-            // Мощность по типам
-            Map<String, Double> powerByType = allObjects.stream()
-                    .collect(Collectors.groupingBy(
-                            EnergyObject::getType,
-                            Collectors.summingDouble(EnergyObject::getPower)
-                    ));
-
-            // Средний КПД по типам
-            Map<String, Double> avgEfficiencyByType = allObjects.stream()
-                    .collect(Collectors.groupingBy(
-                            EnergyObject::getType,
-                            Collectors.averagingDouble(EnergyObject::getEfficiency)
-                    ));
-
-            // Общая и средняя мощность
-            double totalPower = allObjects.stream()
-                    .mapToDouble(EnergyObject::getPower)
-                    .sum();
-            double averagePower = Math.round((totalPower / totalObjects) * 100.0) / 100.0;
-
-            // Средний КПД
-            double averageEfficiency = allObjects.stream()
-                    .mapToDouble(EnergyObject::getEfficiency)
-                    .average()
-                    .orElse(0.0);
-
-            // Мощность активных объектов
-            double totalActivePower = allObjects.stream()
-                    .filter(EnergyObject::getActive)
-                    .mapToDouble(EnergyObject::getPower)
-                    .sum();
-
             // Передаем данные в модель
-            model.addAttribute("totalObjects", totalObjects);
-            model.addAttribute("activeObjects", activeObjects);
-            model.addAttribute("inactiveObjects", inactiveObjects);
-            model.addAttribute("activePercentage", activePercentage);
-            model.addAttribute("inactivePercentage", inactivePercentage);
-            model.addAttribute("typeCounts", typeCounts);
-            model.addAttribute("typePercentages", typePercentages);
-            model.addAttribute("powerByType", powerByType);
-            model.addAttribute("avgEfficiencyByType", avgEfficiencyByType);
-            model.addAttribute("totalPower", Math.round(totalPower * 100.0) / 100.0);
-            model.addAttribute("averagePower", averagePower);
-            model.addAttribute("averageEfficiency", Math.round(averageEfficiency * 10.0) / 10.0);
-            model.addAttribute("totalActivePower", Math.round(totalActivePower * 100.0) / 100.0);
+            model.addAttribute("totalObjects", statistics.getTotalObjects());
+            model.addAttribute("activeObjects", statistics.getActiveObjects());
+            model.addAttribute("inactiveObjects", statistics.getInactiveObjects());
+            model.addAttribute("activePercentage", statistics.getActivePercentage());
+            model.addAttribute("inactivePercentage", statistics.getInactivePercentage());
+            model.addAttribute("typeCounts", statistics.getTypeCounts());
+            model.addAttribute("typePercentages", statistics.getTypePercentages());
+            model.addAttribute("powerByType", statistics.getPowerByType());
+            model.addAttribute("avgEfficiencyByType", statistics.getAvgEfficiencyByType());
+            model.addAttribute("totalPower", Math.round(statistics.getTotalPower() * 100.0) / 100.0);
+            model.addAttribute("averagePower", Math.round(statistics.getAveragePower() * 100.0) / 100.0);
+            model.addAttribute("averageEfficiency", Math.round(statistics.getAverageEfficiency() * 10.0) / 10.0);
+            model.addAttribute("totalActivePower", Math.round(statistics.getTotalActivePower() * 100.0) / 100.0);
 
             return "energy-objects/statistics";
 
@@ -0,0 +1,70 @@
+package com.energy_company_v1.controller;
+
+import com.energy_company_v1.dto.MapPoint;
+import com.energy_company_v1.dto.MapViewport;
+import com.energy_company_v1.geo.FleetSpatialIndex;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import java.util.List;
+
+/**
+ * Энергообъекты на карте: содержимое видимой области (с группировкой плотных районов
+ * на мелком масштабе) и ближайшие к точке объекты. Отвечает пространственный индекс
+ * в памяти, без запросов к БД.
+ */
+@RestController
+@RequestMapping(value = "/api/v1/energy-objects/geo", produces = MediaType.APPLICATION_JSON_VALUE)
+public class GeoApiController {
+    private static final int MAX_POINTS = 5000;
+    private static final int MAX_NEAREST = 100;
+
+    private final FleetSpatialIndex fleetSpatialIndex;
+
+    public GeoApiController(FleetSpatialIndex fleetSpatialIndex) {
+        this.fleetSpatialIndex = fleetSpatialIndex;
+    }
+
+    /**
+     * Объекты в прямоугольнике; minLon > maxLon - область через 180-й меридиан.
+     * Если объектов больше limit, вместо них возвращаются группы для масштаба zoom
+     */
+    @GetMapping("/bbox")
+    public MapViewport boundingBox(@RequestParam double minLat,
+                                   @RequestParam double minLon,
+                                   @RequestParam double maxLat,
+                                   @RequestParam double maxLon,
+                                   @RequestParam(required = false) Integer zoom,
+                                   @RequestParam(defaultValue = "500") int limit) {
+        return fleetSpatialIndex.viewport(minLat, minLon, maxLat, maxLon, zoom,
+                Math.max(0, Math.min(limit, MAX_POINTS)));
+    }
+
+    /**
+     * k ближайших объектов по расстоянию на сфере, по возрастанию расстояния (distanceKm)
+     */
+    @GetMapping("/nearest")
+    public List<MapPoint> nearest(@RequestParam double lat,
+                                  @RequestParam double lon,
+                                  @RequestParam(defaultValue = "10") int k,
+                                  @RequestParam(required = false) Double radiusKm) {
+        return fleetSpatialIndex.nearest(lat, lon, Math.max(1, Math.min(k, MAX_NEAREST)),
+                radiusKm != null ? radiusKm : Double.POSITIVE_INFINITY);
+    }
+
+    @ExceptionHandler({IllegalArgumentException.class, MethodArgumentTypeMismatchException.class,
+            MissingServletRequestParameterException.class})
+    public ResponseEntity<ProblemDetail> handleBadRequest(Exception e) {
+        return ResponseEntity.badRequest()
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
+}
@@ -1,6 +1,6 @@
 package com.energy_company_v1.controller;
 
-import com.energy_company_v1.model.User;
+import com.energy_company_v1.dto.UserProfile;
 import com.energy_company_v1.service.UserService;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -23,7 +23,7 @@ public class ProfileController {
     public String showProfile(Authentication authentication, Model model) {
         try {
             // Получаем реального пользователя из базы данных
-            User user = userService.findByUsername(authentication.getName());
+            UserProfile user = userService.getProfile(authentication.getName());
 
             // Создаем DTO или передаем непосредственно пользователя
             model.addAttribute("user", user);
@@ -10,8 +10,6 @@ import org.springframework.web.bind.annotation.RequestParam;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.util.HashSet;
-import java.util.Set;
 
 @Controller
 public class RegistrationController {
@@ -42,7 +40,6 @@ public class RegistrationController {
                                @RequestParam String email,
                                @RequestParam String password,
                                @RequestParam String confirmPassword,
-                               @RequestParam(required = false) Set<String> roles,
                                Model model) {
 
         String errorMessage = null;
@@ -64,12 +61,8 @@ public class RegistrationController {
         }
 
         try {
-            if (roles == null) {
-                roles = new HashSet<>();
-                roles.add("user");
-            }
-
-            userService.registerUser(username, email, password, roles);
+            // Роли из запроса не принимаются: анонимный пользователь получает только ROLE_USER
+            userService.registerUser(username, email, password);
 
             // Используем английское сообщение или кодируем русское
             String encodedSuccess = URLEncoder.encode("Registration successful! You can now log in.",
@@ -0,0 +1,161 @@
+package com.energy_company_v1.controller;
+
+import com.energy_company_v1.dto.TelemetryBucket;
+import com.energy_company_v1.dto.TelemetryIngestReport;
+import com.energy_company_v1.dto.TelemetryReading;
+import com.energy_company_v1.service.EnergyObjectService;
+import com.energy_company_v1.telemetry.TelemetryStore;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Телеметрия выработки энергообъекта: прием показаний пачками (JSON-массив или NDJSON-поток
+ * от SCADA) и выборка за интервал с прореживанием до min/max/avg по интервалам.
+ */
+@RestController
+@RequestMapping("/api/v1/energy-objects/{id}/telemetry")
+public class TelemetryApiController {
+    private static final int INGEST_BATCH_SIZE = 10_000;
+    private static final int MAX_POINTS = 5000;
+
+    private final TelemetryStore telemetryStore;
+    private final EnergyObjectService energyObjectService;
+    private final ObjectMapper objectMapper;
+
+    public TelemetryApiController(TelemetryStore telemetryStore,
+                                  EnergyObjectService energyObjectService,
+                                  ObjectMapper objectMapper) {
+        this.telemetryStore = telemetryStore;
+        this.energyObjectService = energyObjectService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('MODERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<TelemetryIngestReport> ingest(@PathVariable Long id,
+                                                        @RequestBody List<TelemetryReading> readings) {
+        if (!energyObjectService.existsEnergyObject(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        Batch batch = new Batch(readings.size());
+        readings.forEach(batch::add);
+        return ResponseEntity.ok(batch.flush(id));
+    }
+
+    /**
+     * Поток показаний по строке JSON на каждое; в хранилище уходит пачками по INGEST_BATCH_SIZE
+     */
+    @PostMapping(consumes = EnergyObjectApiController.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('MODERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<TelemetryIngestReport> ingestStream(@PathVariable Long id,
+                                                              HttpServletRequest request) throws IOException {
+        if (!energyObjectService.existsEnergyObject(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        TelemetryIngestReport report = new TelemetryIngestReport();
+        Batch batch = new Batch(INGEST_BATCH_SIZE);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(objectMapper.readValue(line, TelemetryReading.class));
+                if (batch.size == INGEST_BATCH_SIZE) {
+                    report.add(batch.flush(id));
+                }
+            }
+        }
+        report.add(batch.flush(id));
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Ряд за [from, to): шаг прореживания stepSeconds или, если не задан, такой,
+     * чтобы получилось не более points интервалов
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<TelemetryBucket>> query(@PathVariable Long id,
+                                                       @RequestParam Instant from,
+                                                       @RequestParam Instant to,
+                                                       @RequestParam(required = false) Long stepSeconds,
+                                                       @RequestParam(defaultValue = "500") int points) {
+        if (!energyObjectService.existsEnergyObject(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        Duration step;
+        if (stepSeconds != null) {
+            step = Duration.ofSeconds(Math.max(stepSeconds, 1));
+        } else {
+            long rangeMillis = Math.max(Duration.between(from, to).toMillis(), 1);
+            int bucketCount = Math.max(1, Math.min(points, MAX_POINTS));
+            step = Duration.ofMillis(Math.max(1000, Math.ceilDiv(rangeMillis, bucketCount)));
+        }
+        return ResponseEntity.ok(telemetryStore.query(id, from, to, step));
+    }
+
+    @ExceptionHandler({IllegalArgumentException.class, JacksonException.class,
+            MethodArgumentTypeMismatchException.class, MissingServletRequestParameterException.class})
+    public ResponseEntity<ProblemDetail> handleBadRequest(Exception e) {
+        return ResponseEntity.badRequest()
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
+
+    // Показания в примитивных массивах: хранилище принимает пачку без упаковки в объекты
+    private final class Batch {
+        private final long[] timestamps;
+        private final double[] values;
+        private int size;
+        private long missingTimestamps;
+
+        private Batch(int capacity) {
+            this.timestamps = new long[Math.max(capacity, 1)];
+            this.values = new double[Math.max(capacity, 1)];
+        }
+
+        private void add(TelemetryReading reading) {
+            if (reading.getTimestamp() == null) {
+                missingTimestamps++;
+                return;
+            }
+            timestamps[size] = reading.getTimestamp().toEpochMilli();
+            values[size] = reading.getValue();
+            size++;
+        }
+
+        private TelemetryIngestReport flush(long objectId) {
+            TelemetryIngestReport report = telemetryStore.ingest(objectId, timestamps, values, size);
+            for (long i = 0; i < missingTimestamps; i++) {
+                report.pointRejected();
+            }
+            size = 0;
+            missingTimestamps = 0;
+            return report;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.energy_company_v1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Страница выборки с курсорной (keyset) навигацией.
+ * Курсоры непрозрачны для клиента и передаются обратно как есть.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+    private final List<T> content;
+    private final String sortBy;
+    private final String direction;
+    private final String nextCursor;
+    private final String previousCursor;
+    // Приблизительное общее количество (pg_class.reltuples), null если не запрашивалось
+    private final Long approximateTotal;
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean isHasPrevious() {
+        return previousCursor != null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.energy_company_v1.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Фильтр энергообъектов для REST API; незаданные поля не ограничивают выборку
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class EnergyObjectFilter {
+    private String type;
+    private Boolean active;
+    private Double minPower;
+    private Double maxPower;
+    private Integer fromYear;
+    private Integer toYear;
+}
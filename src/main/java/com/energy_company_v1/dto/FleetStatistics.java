@@ -0,0 +1,90 @@
+package com.energy_company_v1.dto;
+
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Сводная статистика по всему парку энергообъектов,
+ * собранная из построчных агрегатов по типам
+ */
+@Getter
+public class FleetStatistics {
+    private long totalObjects;
+    private long activeObjects;
+    private double totalPower;
+    private double totalActivePower;
+    private double efficiencySum;
+
+    private final Map<String, Long> typeCounts = new LinkedHashMap<>();
+    private final Map<String, Double> powerByType = new LinkedHashMap<>();
+    private final Map<String, Double> avgEfficiencyByType = new LinkedHashMap<>();
+
+    public FleetStatistics(Collection<? extends TypeStatistics> rows) {
+        for (TypeStatistics row : rows) {
+            long count = valueOf(row.getCount());
+            if (count == 0) {
+                continue;
+            }
+            double power = valueOf(row.getTotalPower());
+            double efficiency = valueOf(row.getEfficiencySum());
+
+            totalObjects += count;
+            activeObjects += valueOf(row.getActiveCount());
+            totalPower += power;
+            totalActivePower += valueOf(row.getActivePower());
+            efficiencySum += efficiency;
+
+            typeCounts.put(row.getType(), count);
+            powerByType.put(row.getType(), power);
+            avgEfficiencyByType.put(row.getType(), efficiency / count);
+        }
+    }
+
+    public boolean isEmpty() {
+        return totalObjects == 0;
+    }
+
+    public long getInactiveObjects() {
+        return totalObjects - activeObjects;
+    }
+
+    public double getAveragePower() {
+        return totalObjects > 0 ? totalPower / totalObjects : 0.0;
+    }
+
+    public double getAverageEfficiency() {
+        return totalObjects > 0 ? efficiencySum / totalObjects : 0.0;
+    }
+
+    public double getActivePercentage() {
+        return percentOf(activeObjects);
+    }
+
+    public double getInactivePercentage() {
+        return percentOf(getInactiveObjects());
+    }
+
+    /**
+     * Доля каждого типа в процентах, округленная до десятых
+     */
+    public Map<String, Double> getTypePercentages() {
+        Map<String, Double> percentages = new LinkedHashMap<>();
+        typeCounts.forEach((type, count) -> percentages.put(type, percentOf(count)));
+        return percentages;
+    }
+
+    private double percentOf(long count) {
+        return totalObjects > 0 ? Math.round((count * 100.0 / totalObjects) * 10.0) / 10.0 : 0.0;
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private static double valueOf(Double value) {
+        return value != null ? value : 0.0;
+    }
+}
@@ -0,0 +1,47 @@
+package com.energy_company_v1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Итог массовой загрузки энергообъектов с построчным списком ошибок
+ */
+@Getter
+public class ImportReport {
+    // Ограничение размера отчета, чтобы файл целиком из ошибок не раздул ответ
+    private static final int MAX_ERRORS = 1000;
+
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public void rowRead() {
+        totalRows++;
+    }
+
+    public void rowsImported(int count) {
+        importedRows += count;
+    }
+
+    public void rowFailed(long row, String message) {
+        failedRows++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(row, message));
+        }
+    }
+
+    public boolean isErrorsTruncated() {
+        return failedRows > errors.size();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        private final long row;
+        private final String message;
+    }
+}
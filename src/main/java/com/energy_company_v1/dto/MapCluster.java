@@ -0,0 +1,17 @@
+package com.energy_company_v1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Группа близко расположенных энергообъектов на мелком масштабе карты: центр масс и число объектов.
+ * Для группы из одного объекта заполнен objectId
+ */
+@Getter
+@AllArgsConstructor
+public class MapCluster {
+    private final double latitude;
+    private final double longitude;
+    private final long count;
+    private final Long objectId;
+}
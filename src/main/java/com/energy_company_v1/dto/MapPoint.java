@@ -0,0 +1,21 @@
+package com.energy_company_v1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Энергообъект на карте: координаты и поля для значка (тип, мощность, статус).
+ * Подробности - по id через /api/v1/energy-objects/{id}
+ */
+@Getter
+@AllArgsConstructor
+public class MapPoint {
+    private final long id;
+    private final double latitude;
+    private final double longitude;
+    private final String type;
+    private final double power;
+    private final boolean active;
+    // Расстояние до точки запроса, км; только в ответе поиска ближайших
+    private final Double distanceKm;
+}
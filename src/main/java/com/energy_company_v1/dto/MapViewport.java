@@ -0,0 +1,19 @@
+package com.energy_company_v1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Содержимое видимой области карты: отдельные объекты, если их не больше лимита,
+ * иначе группы (clustered = true, points пуст)
+ */
+@Getter
+@AllArgsConstructor
+public class MapViewport {
+    private final long total;
+    private final boolean clustered;
+    private final List<MapPoint> points;
+    private final List<MapCluster> clusters;
+}
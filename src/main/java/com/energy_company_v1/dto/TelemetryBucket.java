@@ -0,0 +1,19 @@
+package com.energy_company_v1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Интервал прореженного ряда телеметрии: начало интервала и агрегаты показаний в нем
+ */
+@Getter
+@AllArgsConstructor
+public class TelemetryBucket {
+    private final Instant start;
+    private final long count;
+    private final double min;
+    private final double max;
+    private final double avg;
+}
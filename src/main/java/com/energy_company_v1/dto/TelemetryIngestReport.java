@@ -0,0 +1,26 @@
+package com.energy_company_v1.dto;
+
+import lombok.Getter;
+
+/**
+ * Итог приема пачки показаний. Отклоняются показания старше уже принятых
+ * (ряд только дописывается) и нечисловые значения.
+ */
+@Getter
+public class TelemetryIngestReport {
+    private long accepted;
+    private long rejected;
+
+    public void add(TelemetryIngestReport other) {
+        accepted += other.accepted;
+        rejected += other.rejected;
+    }
+
+    public void pointAccepted() {
+        accepted++;
+    }
+
+    public void pointRejected() {
+        rejected++;
+    }
+}
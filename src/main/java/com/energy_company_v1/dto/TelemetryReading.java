@@ -0,0 +1,18 @@
+package com.energy_company_v1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Одно показание выработки объекта: момент и мощность, МВт
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TelemetryReading {
+    private Instant timestamp;
+    private double value;
+}
@@ -0,0 +1,19 @@
+package com.energy_company_v1.dto;
+
+/**
+ * Агрегированные показатели энергообъектов одного типа
+ * (строка результата GROUP BY type)
+ */
+public interface TypeStatistics {
+    String getType();
+
+    Long getCount();
+
+    Long getActiveCount();
+
+    Double getTotalPower();
+
+    Double getActivePower();
+
+    Double getEfficiencySum();
+}
@@ -0,0 +1,41 @@
+package com.energy_company_v1.dto;
+
+import com.energy_company_v1.model.ERole;
+import com.energy_company_v1.model.Role;
+import com.energy_company_v1.model.User;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Неизменяемые данные пользователя для страниц профиля: хранятся в кэше и используются
+ * несколькими запросами сразу, поэтому без хеша пароля и без ссылок на сущности JPA
+ */
+@Getter
+public class UserProfile {
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final String phone;
+    private final LocalDateTime createdAt;
+    private final Set<ERole> roles;
+
+    public UserProfile(User user) {
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.email = user.getEmail();
+        this.firstName = user.getFirstName();
+        this.lastName = user.getLastName();
+        this.phone = user.getPhone();
+        this.createdAt = user.getCreatedAt();
+        Set<ERole> roleNames = EnumSet.noneOf(ERole.class);
+        for (Role role : user.getRoles()) {
+            roleNames.add(role.getName());
+        }
+        this.roles = Set.copyOf(roleNames);
+    }
+}
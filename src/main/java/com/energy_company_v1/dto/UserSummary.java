@@ -0,0 +1,32 @@
+package com.energy_company_v1.dto;
+
+import com.energy_company_v1.model.ERole;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Строка списка пользователей в админ-панели: без хеша пароля и без загрузки сущности User
+ */
+@Getter
+public class UserSummary {
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final LocalDateTime createdAt;
+    private final Set<ERole> roles = EnumSet.noneOf(ERole.class);
+
+    public UserSummary(Long id, String username, String email, String firstName, String lastName,
+                       LocalDateTime createdAt) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.createdAt = createdAt;
+    }
+}
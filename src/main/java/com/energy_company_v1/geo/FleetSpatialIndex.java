@@ -0,0 +1,148 @@
+package com.energy_company_v1.geo;
+
+import com.energy_company_v1.dto.MapPoint;
+import com.energy_company_v1.dto.MapViewport;
+import com.energy_company_v1.repository.EnergyObjectRepository;
+import com.energy_company_v1.service.EnergyObjectChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Пространственный индекс парка для карты: строится из БД при старте и после импорта,
+ * дальше обновляется событиями EnergyObjectChangedEvent. Объекты без координат в индекс не попадают.
+ */
+@Component
+public class FleetSpatialIndex {
+    private static final Logger log = LoggerFactory.getLogger(FleetSpatialIndex.class);
+    // Группы на карте: примерно 8x8 на тайл 256 пикселей, т.е. по 32 пикселя
+    private static final int CLUSTERS_PER_TILE = 8;
+    private static final int MAX_ZOOM = 20;
+
+    private final EnergyObjectRepository energyObjectRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final double cellDegrees;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Изменения, пришедшие во время перестроения: применяются к новому индексу после замены
+    private final Queue<EnergyObjectChangedEvent> changedDuringRebuild = new ConcurrentLinkedQueue<>();
+
+    private volatile SpatialGrid grid;
+    private volatile boolean rebuilding;
+
+    public FleetSpatialIndex(EnergyObjectRepository energyObjectRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${energy.geo.cell-degrees:0.5}") double cellDegrees) {
+        this.energyObjectRepository = energyObjectRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.cellDegrees = cellDegrees;
+        this.grid = new SpatialGrid(cellDegrees);
+    }
+
+    // Первичное построение в фоне, чтобы не задерживать готовность приложения
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    // После импорта индекс строится заново в фоне, а не в потоке запроса загрузки
+    @Async
+    @TransactionalEventListener(fallbackExecution = true, condition = "#event.bulk")
+    public void onBulkChange(EnergyObjectChangedEvent event) {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true, condition = "!#event.bulk")
+    public void onEnergyObjectChanged(EnergyObjectChangedEvent event) {
+        SpatialGrid target = grid;
+        apply(target, event);
+        if (rebuilding) {
+            changedDuringRebuild.add(event);
+        }
+        if (target != grid) {
+            // Индекс подменили, пока применялось изменение; повторное применение безвредно
+            apply(grid, event);
+        }
+    }
+
+    private static void apply(SpatialGrid target, EnergyObjectChangedEvent event) {
+        if (event.isDeleted()) {
+            target.remove(event.getId());
+            return;
+        }
+        Map<String, Object> object = event.getObject();
+        Double latitude = (Double) object.get("latitude");
+        Double longitude = (Double) object.get("longitude");
+        if (latitude == null || longitude == null) {
+            target.remove(event.getId());
+            return;
+        }
+        target.put(event.getId(), latitude, longitude, (String) object.get("type"),
+                (Double) object.get("power"), Boolean.TRUE.equals(object.get("active")));
+    }
+
+    /**
+     * Построить индекс заново потоковым чтением координат из БД и подменить текущий
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            changedDuringRebuild.clear();
+            rebuilding = true;
+            SpatialGrid fresh = new SpatialGrid(cellDegrees);
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = energyObjectRepository.streamCoordinates()) {
+                    rows.forEach(row -> fresh.put((Long) row[0], (Double) row[1], (Double) row[2],
+                            (String) row[3], (Double) row[4], Boolean.TRUE.equals(row[5])));
+                }
+            });
+            grid = fresh;
+            EnergyObjectChangedEvent event;
+            while ((event = changedDuringRebuild.poll()) != null) {
+                apply(fresh, event);
+            }
+            log.debug("Пространственный индекс построен: {} энергообъектов с координатами", fresh.size());
+        } finally {
+            rebuilding = false;
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Видимая область карты. zoom - масштаб веб-карты (0 - весь мир в одном тайле);
+     * если не задан, оценивается по ширине области
+     */
+    public MapViewport viewport(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                Integer zoom, int pointLimit) {
+        int level = zoom != null ? zoom : estimateZoom(minLongitude, maxLongitude);
+        level = Math.max(0, Math.min(level, MAX_ZOOM));
+        double clusterDegrees = 360.0 / (1L << level) / CLUSTERS_PER_TILE;
+        return grid.viewport(minLatitude, minLongitude, maxLatitude, maxLongitude, clusterDegrees, pointLimit);
+    }
+
+    public List<MapPoint> nearest(double latitude, double longitude, int k, double maxDistanceKm) {
+        return grid.nearest(latitude, longitude, k, maxDistanceKm);
+    }
+
+    // Область шириной в один тайл соответствует масштабу log2(360 / ширина)
+    private static int estimateZoom(double minLongitude, double maxLongitude) {
+        double width = maxLongitude >= minLongitude ? maxLongitude - minLongitude : 360 - (minLongitude - maxLongitude);
+        return (int) Math.floor(Math.log(360 / Math.max(width, 1e-6)) / Math.log(2));
+    }
+}
@@ -0,0 +1,488 @@
+package com.energy_company_v1.geo;
+
+import com.energy_company_v1.dto.MapCluster;
+import com.energy_company_v1.dto.MapPoint;
+import com.energy_company_v1.dto.MapViewport;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Пространственный индекс точек в памяти: равномерная сетка широта/долгота с ячейкой
+ * cellDegrees градусов. В ячейке точки лежат в примитивных массивах, плюс сумма координат
+ * для центра масс, поэтому группировка на мелком масштабе идет по ячейкам, а не по точкам.
+ * Чтения параллельны, запись - под эксклюзивной блокировкой.
+ */
+public class SpatialGrid {
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180;
+    private static final int INITIAL_CELL_CAPACITY = 8;
+
+    private final double cellDegrees;
+    private final int rows;
+    private final int columns;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private final Map<Long, Cell> cellById = new HashMap<>();
+
+    public SpatialGrid(double cellDegrees) {
+        if (!(cellDegrees > 0 && cellDegrees <= 90)) {
+            throw new IllegalArgumentException("Размер ячейки должен быть в (0, 90] градусов: " + cellDegrees);
+        }
+        this.cellDegrees = cellDegrees;
+        this.rows = (int) Math.ceil(180 / cellDegrees);
+        this.columns = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return cellById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Добавить точку или переместить существующую
+     */
+    public void put(long id, double latitude, double longitude, String type, double power, boolean active) {
+        checkCoordinates(latitude, longitude);
+        long key = key(row(latitude), column(longitude));
+        lock.writeLock().lock();
+        try {
+            Cell previous = cellById.get(id);
+            if (previous != null) {
+                removeFrom(previous, id);
+            }
+            Cell cell = cells.computeIfAbsent(key, Cell::new);
+            cell.add(id, latitude, longitude, type, power, active);
+            cellById.put(id, cell);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Cell cell = cellById.remove(id);
+            if (cell != null) {
+                removeFrom(cell, id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Вызывается под блокировкой записи
+    private void removeFrom(Cell cell, long id) {
+        cell.remove(id);
+        if (cell.size == 0) {
+            cells.remove(cell.key);
+        }
+    }
+
+    /**
+     * Видимая область карты: точки, если их не больше pointLimit, иначе группы
+     * по сетке clusterDegrees. minLongitude > maxLongitude - область через 180-й меридиан
+     */
+    public MapViewport viewport(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                double clusterDegrees, int pointLimit) {
+        BoundingBox box = new BoundingBox(minLatitude, minLongitude, maxLatitude, maxLongitude);
+        lock.readLock().lock();
+        try {
+            long[] total = {0};
+            forEachCell(box, (cell, inside) -> total[0] += inside ? cell.size : cell.count(box));
+            if (total[0] <= pointLimit) {
+                List<MapPoint> points = new ArrayList<>((int) total[0]);
+                forEachCell(box, (cell, inside) -> {
+                    for (int i = 0; i < cell.size; i++) {
+                        if (inside || box.contains(cell.latitudes[i], cell.longitudes[i])) {
+                            points.add(cell.point(i, null));
+                        }
+                    }
+                });
+                return new MapViewport(total[0], false, points, List.of());
+            }
+            return new MapViewport(total[0], true, List.of(), cluster(box, clusterDegrees));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Вызывается под блокировкой чтения
+    private List<MapCluster> cluster(BoundingBox box, double clusterDegrees) {
+        double step = Math.max(clusterDegrees, 1e-6);
+        int clusterColumns = (int) Math.ceil(360 / step);
+        Map<Long, ClusterAccumulator> clusters = new HashMap<>();
+        forEachCell(box, (cell, inside) -> {
+            if (inside && step >= cellDegrees) {
+                // Ячейка целиком в области и мельче группы - берется ее центр масс
+                double latitude = cell.latitudeSum / cell.size;
+                double longitude = cell.longitudeSum / cell.size;
+                clusters.computeIfAbsent(clusterKey(latitude, longitude, step, clusterColumns),
+                        k -> new ClusterAccumulator()).add(cell, latitude, longitude);
+                return;
+            }
+            for (int i = 0; i < cell.size; i++) {
+                double latitude = cell.latitudes[i];
+                double longitude = cell.longitudes[i];
+                if (inside || box.contains(latitude, longitude)) {
+                    clusters.computeIfAbsent(clusterKey(latitude, longitude, step, clusterColumns),
+                            k -> new ClusterAccumulator()).add(cell.ids[i], latitude, longitude);
+                }
+            }
+        });
+        List<MapCluster> result = new ArrayList<>(clusters.size());
+        for (ClusterAccumulator accumulator : clusters.values()) {
+            result.add(accumulator.toCluster());
+        }
+        return result;
+    }
+
+    private static long clusterKey(double latitude, double longitude, double step, int clusterColumns) {
+        long row = (long) Math.floor((latitude + 90) / step);
+        long column = Math.floorMod((long) Math.floor((longitude + 180) / step), clusterColumns);
+        return row * clusterColumns + column;
+    }
+
+    /**
+     * k ближайших точек по расстоянию на сфере, не дальше maxDistanceKm.
+     * Ячейки просматриваются кольцами от ячейки запроса, пока оценка снизу расстояния
+     * до следующего кольца меньше k-го найденного
+     */
+    public List<MapPoint> nearest(double latitude, double longitude, int k, double maxDistanceKm) {
+        checkCoordinates(latitude, longitude);
+        if (k <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Candidate> best = new PriorityQueue<>(k + 1,
+                    Comparator.comparingDouble((Candidate candidate) -> candidate.distance).reversed());
+            if (cellById.size() <= k) {
+                // Точек не больше k: кольца пришлось бы обойти до конца сетки
+                for (Cell cell : cells.values()) {
+                    collect(cell, latitude, longitude, k, maxDistanceKm, best);
+                }
+            } else {
+                int centerRow = row(latitude);
+                int centerColumn = column(longitude);
+                Set<Long> visited = new HashSet<>();
+                int maxRing = rows + columns / 2;
+                for (int ring = 0; ring <= maxRing; ring++) {
+                    for (int r = centerRow - ring; r <= centerRow + ring; r++) {
+                        if (r < 0 || r >= rows) {
+                            continue;
+                        }
+                        boolean edge = Math.abs(r - centerRow) == ring;
+                        for (int c = centerColumn - ring; c <= centerColumn + ring; c += edge ? 1 : Math.max(2 * ring, 1)) {
+                            long key = key(r, Math.floorMod(c, columns));
+                            Cell cell = cells.get(key);
+                            if (cell != null && visited.add(key)) {
+                                collect(cell, latitude, longitude, k, maxDistanceKm, best);
+                            }
+                        }
+                    }
+                    double bound = ringLowerBoundKm(latitude, ring + 1);
+                    if (bound > maxDistanceKm || (best.size() == k && bound >= best.peek().distance)) {
+                        break;
+                    }
+                }
+            }
+            Candidate[] sorted = best.toArray(new Candidate[0]);
+            Arrays.sort(sorted, Comparator.comparingDouble(candidate -> candidate.distance));
+            List<MapPoint> result = new ArrayList<>(sorted.length);
+            for (Candidate candidate : sorted) {
+                result.add(candidate.cell.point(candidate.index, Math.round(candidate.distance * 1000) / 1000.0));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void collect(Cell cell, double latitude, double longitude, int k, double maxDistanceKm,
+                                PriorityQueue<Candidate> best) {
+        double limit = best.size() == k ? best.peek().distance : maxDistanceKm;
+        for (int i = 0; i < cell.size; i++) {
+            // Расстояние по дуге не меньше разницы широт - без тригонометрии отсекается большинство точек
+            if (Math.abs(cell.latitudes[i] - latitude) * KM_PER_DEGREE > limit) {
+                continue;
+            }
+            double distance = distanceKm(latitude, longitude, cell.latitudes[i], cell.longitudes[i]);
+            if (distance > limit) {
+                continue;
+            }
+            if (best.size() < k) {
+                best.add(new Candidate(cell, i, distance));
+            } else {
+                best.poll();
+                best.add(new Candidate(cell, i, distance));
+            }
+            if (best.size() == k) {
+                limit = Math.min(limit, best.peek().distance);
+            }
+        }
+    }
+
+    // Точка запроса где-то внутри своей ячейки, поэтому до кольца ring не меньше ring - 1 ячеек
+    // по широте или по долготе; долготный зазор берется на самой высокой широте кольца
+    private double ringLowerBoundKm(double latitude, int ring) {
+        double gap = Math.toRadians(Math.max(ring - 1, 0) * cellDegrees);
+        double latitudeKm = gap * EARTH_RADIUS_KM;
+        double highest = Math.toRadians(Math.min(90, Math.abs(latitude) + (ring + 1) * cellDegrees));
+        double longitudeKm = 2 * EARTH_RADIUS_KM
+                * Math.asin(Math.min(1, Math.cos(highest) * Math.sin(Math.min(gap / 2, Math.PI / 2))));
+        return Math.min(latitudeKm, longitudeKm);
+    }
+
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double phi1 = Math.toRadians(latitude1);
+        double phi2 = Math.toRadians(latitude2);
+        double sinPhi = Math.sin((phi2 - phi1) / 2);
+        double sinLambda = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+        double h = sinPhi * sinPhi + Math.cos(phi1) * Math.cos(phi2) * sinLambda * sinLambda;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(h)));
+    }
+
+    // Ячейки, пересекающие область; inside - ячейка целиком внутри. Если ячеек области больше,
+    // чем занятых, перебираются занятые (мелкий масштаб, вся карта)
+    private void forEachCell(BoundingBox box, CellVisitor visitor) {
+        int fromRow = row(box.minLatitude);
+        int toRow = row(box.maxLatitude);
+        int[][] columnRanges = box.columnRanges();
+        long span = 0;
+        for (int[] range : columnRanges) {
+            span += range[1] - range[0] + 1;
+        }
+        if ((long) (toRow - fromRow + 1) * span > cells.size()) {
+            for (Cell cell : cells.values()) {
+                int cellRow = (int) (cell.key / columns);
+                int cellColumn = (int) (cell.key % columns);
+                if (cellRow >= fromRow && cellRow <= toRow && inRanges(cellColumn, columnRanges)) {
+                    visitor.visit(cell, box.covers(cellRow, cellColumn));
+                }
+            }
+            return;
+        }
+        for (int r = fromRow; r <= toRow; r++) {
+            for (int[] range : columnRanges) {
+                for (int c = range[0]; c <= range[1]; c++) {
+                    Cell cell = cells.get(key(r, c));
+                    if (cell != null) {
+                        visitor.visit(cell, box.covers(r, c));
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean inRanges(int column, int[][] ranges) {
+        for (int[] range : ranges) {
+            if (column >= range[0] && column <= range[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int row(double latitude) {
+        return Math.min(rows - 1, Math.max(0, (int) Math.floor((latitude + 90) / cellDegrees)));
+    }
+
+    private int column(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellDegrees), columns);
+    }
+
+    private long key(int row, int column) {
+        return (long) row * columns + column;
+    }
+
+    private static void checkCoordinates(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Некорректные координаты: " + latitude + ", " + longitude);
+        }
+    }
+
+    @FunctionalInterface
+    private interface CellVisitor {
+        void visit(Cell cell, boolean inside);
+    }
+
+    private final class BoundingBox {
+        private final double minLatitude;
+        private final double minLongitude;
+        private final double maxLatitude;
+        private final double maxLongitude;
+        private final boolean wraps;
+
+        private BoundingBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+            checkCoordinates(minLatitude, minLongitude);
+            checkCoordinates(maxLatitude, maxLongitude);
+            if (minLatitude > maxLatitude) {
+                throw new IllegalArgumentException("Южная граница области севернее северной");
+            }
+            this.minLatitude = minLatitude;
+            this.minLongitude = minLongitude;
+            this.maxLatitude = maxLatitude;
+            this.maxLongitude = maxLongitude;
+            this.wraps = minLongitude > maxLongitude;
+        }
+
+        private boolean contains(double latitude, double longitude) {
+            if (latitude < minLatitude || latitude > maxLatitude) {
+                return false;
+            }
+            return wraps ? longitude >= minLongitude || longitude <= maxLongitude
+                    : longitude >= minLongitude && longitude <= maxLongitude;
+        }
+
+        private int[][] columnRanges() {
+            int from = (int) Math.floor((minLongitude + 180) / cellDegrees);
+            int to = Math.min(columns - 1, (int) Math.floor((maxLongitude + 180) / cellDegrees));
+            from = Math.min(from, columns - 1);
+            if (wraps) {
+                // Оба края области в одной ячейке: диапазоны перекрылись бы и ячейка посчиталась дважды
+                return from <= to ? new int[][]{{0, columns - 1}} : new int[][]{{from, columns - 1}, {0, to}};
+            }
+            // Точки на 180-м меридиане лежат в ячейке -180, если 360 делится на размер ячейки
+            if (maxLongitude == 180 && from > 0 && column(maxLongitude) == 0) {
+                return new int[][]{{from, to}, {0, 0}};
+            }
+            return new int[][]{{from, to}};
+        }
+
+        // Ячейка целиком внутри области: все ее точки подходят без проверки
+        private boolean covers(int row, int column) {
+            double south = row * cellDegrees - 90;
+            double west = column * cellDegrees - 180;
+            return contains(south, west) && contains(Math.min(90, south + cellDegrees), Math.min(180, west + cellDegrees))
+                    && (!wraps || west >= minLongitude || west + cellDegrees <= maxLongitude);
+        }
+    }
+
+    private static final class Cell {
+        private final long key;
+        private long[] ids = new long[INITIAL_CELL_CAPACITY];
+        private double[] latitudes = new double[INITIAL_CELL_CAPACITY];
+        private double[] longitudes = new double[INITIAL_CELL_CAPACITY];
+        private String[] types = new String[INITIAL_CELL_CAPACITY];
+        private double[] powers = new double[INITIAL_CELL_CAPACITY];
+        private boolean[] actives = new boolean[INITIAL_CELL_CAPACITY];
+        private int size;
+        private double latitudeSum;
+        private double longitudeSum;
+
+        private Cell(long key) {
+            this.key = key;
+        }
+
+        private void add(long id, double latitude, double longitude, String type, double power, boolean active) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                latitudes = Arrays.copyOf(latitudes, capacity);
+                longitudes = Arrays.copyOf(longitudes, capacity);
+                types = Arrays.copyOf(types, capacity);
+                powers = Arrays.copyOf(powers, capacity);
+                actives = Arrays.copyOf(actives, capacity);
+            }
+            ids[size] = id;
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            types[size] = type;
+            powers[size] = power;
+            actives[size] = active;
+            size++;
+            latitudeSum += latitude;
+            longitudeSum += longitude;
+        }
+
+        // Удаление перестановкой последнего элемента на место удаляемого
+        private void remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] != id) {
+                    continue;
+                }
+                latitudeSum -= latitudes[i];
+                longitudeSum -= longitudes[i];
+                int last = --size;
+                ids[i] = ids[last];
+                latitudes[i] = latitudes[last];
+                longitudes[i] = longitudes[last];
+                types[i] = types[last];
+                powers[i] = powers[last];
+                actives[i] = actives[last];
+                types[last] = null;
+                return;
+            }
+        }
+
+        private long count(BoundingBox box) {
+            long count = 0;
+            for (int i = 0; i < size; i++) {
+                if (box.contains(latitudes[i], longitudes[i])) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private MapPoint point(int index, Double distanceKm) {
+            return new MapPoint(ids[index], latitudes[index], longitudes[index], types[index],
+                    powers[index], actives[index], distanceKm);
+        }
+    }
+
+    private static final class Candidate {
+        private final Cell cell;
+        private final int index;
+        private final double distance;
+
+        private Candidate(Cell cell, int index, double distance) {
+            this.cell = cell;
+            this.index = index;
+            this.distance = distance;
+        }
+    }
+
+    private static final class ClusterAccumulator {
+        private long count;
+        private double latitudeSum;
+        private double longitudeSum;
+        private long firstId;
+
+        private void add(long id, double latitude, double longitude) {
+            if (count == 0) {
+                firstId = id;
+            }
+            count++;
+            latitudeSum += latitude;
+            longitudeSum += longitude;
+        }
+
+        private void add(Cell cell, double latitude, double longitude) {
+            if (count == 0) {
+                firstId = cell.ids[0];
+            }
+            count += cell.size;
+            latitudeSum += latitude * cell.size;
+            longitudeSum += longitude * cell.size;
+        }
+
+        private MapCluster toCluster() {
+            return new MapCluster(latitudeSum / count, longitudeSum / count, count, count == 1 ? firstId : null);
+        }
+    }
+}
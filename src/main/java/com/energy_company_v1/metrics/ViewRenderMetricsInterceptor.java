@@ -0,0 +1,57 @@
+package com.energy_company_v1.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замеряет время рендеринга шаблона Thymeleaf: от postHandle (контроллер отработал)
+ * до afterCompletion (представление записано в ответ). Метрика view.render с тегами template
+ * и variant (вид списка energy-objects/list: cards или table; для остальных шаблонов - none).
+ */
+public class ViewRenderMetricsInterceptor implements HandlerInterceptor {
+    private static final String START_ATTRIBUTE = ViewRenderMetricsInterceptor.class.getName() + ".start";
+    private static final String VIEW_ATTRIBUTE = ViewRenderMetricsInterceptor.class.getName() + ".view";
+    private static final String VARIANT_ATTRIBUTE = ViewRenderMetricsInterceptor.class.getName() + ".variant";
+
+    private final MeterRegistry meterRegistry;
+
+    public ViewRenderMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView == null || modelAndView.getViewName() == null
+                || modelAndView.getViewName().startsWith("redirect:")) {
+            return;
+        }
+        request.setAttribute(VIEW_ATTRIBUTE, modelAndView.getViewName());
+        Object variant = modelAndView.getModel().get("viewMode");
+        request.setAttribute(VARIANT_ATTRIBUTE, variant != null ? variant.toString() : "none");
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        Object view = request.getAttribute(VIEW_ATTRIBUTE);
+        if (!(start instanceof Long) || view == null) {
+            return;
+        }
+        Timer.builder("view.render")
+                .description("Время рендеринга шаблона")
+                .tag("template", view.toString())
+                .tag("variant", String.valueOf(request.getAttribute(VARIANT_ATTRIBUTE)))
+                .tag("outcome", ex == null ? "SUCCESS" : "ERROR")
+                .register(meterRegistry)
+                .record(System.nanoTime() - (Long) start, TimeUnit.NANOSECONDS);
+    }
+}
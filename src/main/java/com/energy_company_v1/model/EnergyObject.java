@@ -3,17 +3,36 @@ package com.energy_company_v1.model;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "energy_objects")
+// Схема создается миграциями Flyway (db/migration); индексы перечислены и здесь для ddl-auto
+// в бенчмарках. GIN-индекс полнотекстового поиска есть только в миграции V2.
+@Table(name = "energy_objects", indexes = {
+        @Index(name = "idx_energy_objects_change_version", columnList = "change_version"),
+        @Index(name = "idx_energy_objects_type", columnList = "type"),
+        @Index(name = "idx_energy_objects_active_power", columnList = "active, power"),
+        @Index(name = "idx_energy_objects_name_id", columnList = "name, id"),
+        @Index(name = "idx_energy_objects_power_id", columnList = "power, id"),
+        @Index(name = "idx_energy_objects_commissioning_year_id", columnList = "commissioning_year, id"),
+        @Index(name = "idx_energy_objects_efficiency_id", columnList = "efficiency, id"),
+        @Index(name = "idx_energy_objects_next_maintenance_due_id", columnList = "next_maintenance_due, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EnergyObject.CACHE_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class EnergyObject {
+    public static final String CACHE_REGION = "energyObjects";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -49,9 +68,31 @@ public class EnergyObject {
 
     private LocalDate lastMaintenanceDate;
 
+    // Дата следующего планового ТО: последнее ТО (или 1 января года ввода) плюс интервал типа.
+    // Вычисляется сервисом при каждой записи, из формы не принимается
+    @Column(name = "next_maintenance_due")
+    private LocalDate nextMaintenanceDue;
+
     @Size(max = 500, message = "Описание не должно превышать 500 символов")
     private String description;
 
+    // Координаты WGS 84 для карты; задаются только парой
+    @DecimalMin(value = "-90.0", message = "Широта должна быть не меньше -90")
+    @DecimalMax(value = "90.0", message = "Широта должна быть не больше 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Долгота должна быть не меньше -180")
+    @DecimalMax(value = "180.0", message = "Долгота должна быть не больше 180")
+    private Double longitude;
+
+    // Номер изменения из последовательности energy_objects_change_seq, общий с надгробиями удаленных
+    @Column(name = "change_version")
+    private Long changeVersion;
+
+    @Column(name = "updated_at")
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
     @Override
     public String toString() {
         return "EnergyObject{" +
@@ -64,7 +105,11 @@ public class EnergyObject {
                 ", efficiency=" + efficiency +
                 ", active=" + active +
                 ", description='" + description + '\'' +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
                 ", lastMaintenanceDate=" + lastMaintenanceDate +
+                ", nextMaintenanceDue=" + nextMaintenanceDue +
+                ", changeVersion=" + changeVersion +
                 '}';
     }
 }
\ No newline at end of file
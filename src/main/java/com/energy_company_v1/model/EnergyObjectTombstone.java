@@ -0,0 +1,37 @@
+package com.energy_company_v1.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Отметка об удалении энергообъекта для ленты изменений: зеркала узнают
+ * об удалении по номеру изменения, не перечитывая весь реестр.
+ */
+@Entity
+@Table(name = "energy_object_tombstones",
+        indexes = @Index(name = "idx_energy_object_tombstones_change_version", columnList = "change_version"))
+@Data
+@NoArgsConstructor
+public class EnergyObjectTombstone {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "object_id", nullable = false)
+    private Long objectId;
+
+    @Column(name = "change_version", nullable = false)
+    private Long changeVersion;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    public EnergyObjectTombstone(Long objectId, Long changeVersion) {
+        this.objectId = objectId;
+        this.changeVersion = changeVersion;
+        this.deletedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,24 @@
+package com.energy_company_v1.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+/**
+ * Межремонтный интервал для типа энергообъекта (справочник, заполняется миграцией V3)
+ */
+@Entity
+@Table(name = "maintenance_intervals")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaintenanceInterval {
+    @Id
+    @Column(length = 50)
+    private String type;
+
+    @Column(name = "interval_months", nullable = false)
+    private Integer intervalMonths;
+}
@@ -0,0 +1,20 @@
+package com.energy_company_v1.repository;
+
+import com.energy_company_v1.model.EnergyObject;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+/**
+ * Keyset-прокрутка полнотекстового поиска. Производные запросы Spring Data не умеют
+ * условие "@@ to_tsquery", поэтому нативный запрос строится вручную
+ */
+public interface EnergyObjectFullTextScroll {
+
+    /**
+     * Страница совпадений с tsQuery после (или перед) position в порядке sort.
+     * sort - свойство из списка сортируемых и id в том же направлении
+     */
+    Window<EnergyObject> scrollFullTextSearch(String tsQuery, KeysetScrollPosition position, Sort sort, Limit limit);
+}
@@ -0,0 +1,99 @@
+package com.energy_company_v1.repository;
+
+import com.energy_company_v1.model.EnergyObject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class EnergyObjectFullTextScrollImpl implements EnergyObjectFullTextScroll {
+    // Свойство сортировки -> колонка; имена колонок попадают в текст запроса, поэтому только из этого списка
+    private static final Map<String, String> COLUMNS = Map.of(
+            "id", "id",
+            "name", "name",
+            "power", "power",
+            "commissioningYear", "commissioning_year",
+            "efficiency", "efficiency");
+
+    private final EntityManager entityManager;
+
+    EnergyObjectFullTextScrollImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Window<EnergyObject> scrollFullTextSearch(String tsQuery, KeysetScrollPosition position, Sort sort,
+                                                     Limit limit) {
+        Sort.Order order = sort.iterator().next();
+        String property = order.getProperty();
+        String column = COLUMNS.get(property);
+        if (column == null) {
+            throw new IllegalArgumentException("Сортировка по " + property + " не поддерживается");
+        }
+        // Назад - читаем в обратном порядке от позиции и разворачиваем результат
+        boolean backward = position.scrollsBackward();
+        boolean descending = order.isDescending() != backward;
+        String direction = descending ? " DESC" : " ASC";
+        boolean byId = "id".equals(property);
+
+        StringBuilder sql = new StringBuilder("SELECT e.* FROM energy_objects e WHERE ")
+                .append(EnergyObjectRepository.FULL_TEXT_DOCUMENT)
+                .append(" @@ to_tsquery('russian', :query)");
+        Map<String, ?> keys = position.getKeys();
+        if (!keys.isEmpty()) {
+            // (ключ, id) строго после позиции: равные по ключу строки упорядочены по id
+            String operator = descending ? " < " : " > ";
+            sql.append(byId ? " AND e.id" + operator + ":id"
+                    : " AND (e." + column + ", e.id)" + operator + "(:key, :id)");
+        }
+        sql.append(" ORDER BY ");
+        if (!byId) {
+            sql.append("e.").append(column).append(direction).append(", ");
+        }
+        sql.append("e.id").append(direction).append(" LIMIT :limit");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), EnergyObject.class)
+                .setParameter("query", tsQuery)
+                // Лишняя строка - признак следующей страницы
+                .setParameter("limit", limit.max() + 1);
+        if (!keys.isEmpty()) {
+            query.setParameter("id", keys.get("id"));
+            if (!byId) {
+                query.setParameter("key", keys.get(property));
+            }
+        }
+
+        List<EnergyObject> content = new ArrayList<>(query.getResultList());
+        boolean hasNext = content.size() > limit.max();
+        if (hasNext) {
+            content.remove(content.size() - 1);
+        }
+        if (backward) {
+            Collections.reverse(content);
+        }
+        return Window.from(content, index -> positionOf(content.get(index), property), hasNext);
+    }
+
+    private static ScrollPosition positionOf(EnergyObject energyObject, String property) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(property, switch (property) {
+            case "name" -> energyObject.getName();
+            case "power" -> energyObject.getPower();
+            case "commissioningYear" -> energyObject.getCommissioningYear();
+            case "efficiency" -> energyObject.getEfficiency();
+            default -> energyObject.getId();
+        });
+        keys.put("id", energyObject.getId());
+        return ScrollPosition.forward(keys);
+    }
+}
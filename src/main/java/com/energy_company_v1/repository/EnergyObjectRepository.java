@@ -1,17 +1,53 @@
 package com.energy_company_v1.repository;
 
+import com.energy_company_v1.dto.TypeStatistics;
 import com.energy_company_v1.model.EnergyObject;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface EnergyObjectRepository extends JpaRepository<EnergyObject, Long> {
+public interface EnergyObjectRepository extends JpaRepository<EnergyObject, Long>, EnergyObjectFullTextScroll {
+    // Документ полнотекстового поиска; совпадает с выражением GIN-индекса idx_energy_objects_fts
+    String FULL_TEXT_DOCUMENT = "to_tsvector('russian', coalesce(name, '') || ' ' || " +
+            "coalesce(location, '') || ' ' || coalesce(type, '') || ' ' || coalesce(description, ''))";
+
+    // Общая последовательность номеров изменений для энергообъектов и надгробий удаленных
+    String CHANGE_SEQUENCE = "energy_objects_change_seq";
+    String NEXT_CHANGE_VERSION = "nextval('" + CHANGE_SEQUENCE + "')";
+    // Номера выдаются под блокировкой строки до конца транзакции (миграция V5): больший номер
+    // получает транзакция, зафиксированная позже. Берется до записи строк энергообъектов
+    String LOCK_CHANGE_VERSIONS = "SELECT id FROM energy_objects_change_lock WHERE id = 1 FOR UPDATE";
+
+    // Фильтр REST API: незаданный параметр не ограничивает выборку
+    String FILTER_CONDITION = "(:type IS NULL OR e.type = :type) " +
+            "AND (:active IS NULL OR e.active = :active) " +
+            "AND (:minPower IS NULL OR e.power >= :minPower) " +
+            "AND (:maxPower IS NULL OR e.power <= :maxPower) " +
+            "AND (:fromYear IS NULL OR e.commissioningYear >= :fromYear) " +
+            "AND (:toYear IS NULL OR e.commissioningYear <= :toYear)";
+
     List<EnergyObject> findByNameContainingIgnoreCase(String name);
     List<EnergyObject> findByLocationContainingIgnoreCase(String location);
     List<EnergyObject> findByType(String type);
@@ -23,6 +59,8 @@ public interface EnergyObjectRepository extends JpaRepository<EnergyObject, Long
             "LOWER(e.type) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<EnergyObject> searchByKeyword(@Param("keyword") String keyword);
 
+    // Страницы списка и их COUNT - в кэше запросов, сбрасывается при любой записи в energy_objects
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Page<EnergyObject> findAll(Pageable pageable);
 
     // Статистические запросы
@@ -33,15 +71,156 @@ public interface EnergyObjectRepository extends JpaRepository<EnergyObject, Long
     Double findTotalActivePower();
 
     @Query("SELECT e.type, COUNT(e) FROM EnergyObject e GROUP BY e.type")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Object[]> countByType();
 
-    @Query("SELECT e FROM EnergyObject e WHERE " +
+    // Все показатели страницы статистики за один проход по таблице
+    @Query("SELECT e.type AS type, " +
+            "COUNT(e) AS count, " +
+            "SUM(CASE WHEN e.active = true THEN 1L ELSE 0L END) AS activeCount, " +
+            "SUM(e.power) AS totalPower, " +
+            "SUM(CASE WHEN e.active = true THEN e.power ELSE 0.0 END) AS activePower, " +
+            "SUM(e.efficiency) AS efficiencySum " +
+            "FROM EnergyObject e GROUP BY e.type ORDER BY e.type")
+    List<TypeStatistics> aggregateByType();
+
+    Optional<EnergyObject> findFirstByOrderByCommissioningYearAsc();
+
+    Optional<EnergyObject> findFirstByOrderByCommissioningYearDesc();
+
+    @Query(value = "SELECT e FROM EnergyObject e WHERE " +
+            "LOWER(e.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(e.location) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(e.type) LIKE LOWER(CONCAT('%', :keyword, '%'))",
+            countQuery = "SELECT COUNT(e) FROM EnergyObject e WHERE " +
             "LOWER(e.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(e.location) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(e.type) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     Page<EnergyObject> searchByKeywordPageable(@Param("keyword") String keyword, Pageable pageable);
 
+    // Полнотекстовый поиск с русской морфологией, результаты по релевантности
+    @Query(value = "SELECT e.* FROM energy_objects e " +
+            "WHERE " + FULL_TEXT_DOCUMENT + " @@ to_tsquery('russian', :query) " +
+            "ORDER BY ts_rank(" + FULL_TEXT_DOCUMENT + ", to_tsquery('russian', :query)) DESC, e.id DESC",
+            countQuery = "SELECT COUNT(*) FROM energy_objects e " +
+                    "WHERE " + FULL_TEXT_DOCUMENT + " @@ to_tsquery('russian', :query)",
+            nativeQuery = true)
+    Page<EnergyObject> fullTextSearchRanked(@Param("query") String query, Pageable pageable);
+
+    // Полнотекстовый поиск с сортировкой из Pageable (имена колонок, а не свойств)
+    @Query(value = "SELECT e.* FROM energy_objects e " +
+            "WHERE " + FULL_TEXT_DOCUMENT + " @@ to_tsquery('russian', :query)",
+            countQuery = "SELECT COUNT(*) FROM energy_objects e " +
+                    "WHERE " + FULL_TEXT_DOCUMENT + " @@ to_tsquery('russian', :query)",
+            nativeQuery = true)
+    Page<EnergyObject> fullTextSearch(@Param("query") String query, Pageable pageable);
+
     // Или более простой вариант:
     Page<EnergyObject> findByNameContainingIgnoreCaseOrLocationContainingIgnoreCaseOrTypeContainingIgnoreCase(
             String name, String location, String type, Pageable pageable);
-}
\ No newline at end of file
+
+    // Keyset-прокрутка: стоимость любой страницы не зависит от ее "глубины"
+    Window<EnergyObject> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<EnergyObject> findByNameContainingIgnoreCaseOrLocationContainingIgnoreCaseOrTypeContainingIgnoreCase(
+            String name, String location, String type, ScrollPosition position, Sort sort, Limit limit);
+
+    // Оценка числа строк из статистики планировщика вместо COUNT(*)
+    @Query(value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE relname = 'energy_objects'",
+            nativeQuery = true)
+    Long estimateCount();
+
+    // Потоковое чтение для экспорта: курсор БД с фиксированным размером выборки,
+    // строки не кладутся в кэш второго уровня, чтобы выгрузка не вытесняла рабочие данные
+    @Query("SELECT e FROM EnergyObject e")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")})
+    Stream<EnergyObject> streamAll(Sort sort);
+
+    // Тот же поиск подстроки, что searchByKeywordPageable в списке
+    @Query("SELECT e FROM EnergyObject e WHERE " +
+            "LOWER(e.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(e.location) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(e.type) LIKE LOWER(CONCAT('%', :keyword, '%'))")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")})
+    Stream<EnergyObject> streamByKeyword(@Param("keyword") String keyword, Sort sort);
+
+    @Query(value = "SELECT e.* FROM energy_objects e " +
+            "WHERE " + FULL_TEXT_DOCUMENT + " @@ to_tsquery('russian', :query) " +
+            "ORDER BY ts_rank(" + FULL_TEXT_DOCUMENT + ", to_tsquery('russian', :query)) DESC, e.id DESC",
+            nativeQuery = true)
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")})
+    Stream<EnergyObject> streamFullTextSearchRanked(@Param("query") String query);
+
+    @Query(value = "SELECT e.* FROM energy_objects e " +
+            "WHERE " + FULL_TEXT_DOCUMENT + " @@ to_tsquery('russian', :query)",
+            nativeQuery = true)
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")})
+    Stream<EnergyObject> streamFullTextSearch(@Param("query") String query, Sort sort);
+
+    @Query("SELECT e FROM EnergyObject e WHERE " + FILTER_CONDITION)
+    Page<EnergyObject> findByFilter(@Param("type") String type,
+                                    @Param("active") Boolean active,
+                                    @Param("minPower") Double minPower,
+                                    @Param("maxPower") Double maxPower,
+                                    @Param("fromYear") Integer fromYear,
+                                    @Param("toYear") Integer toYear,
+                                    Pageable pageable);
+
+    @Query("SELECT e FROM EnergyObject e WHERE " + FILTER_CONDITION)
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")})
+    Stream<EnergyObject> streamByFilter(@Param("type") String type,
+                                        @Param("active") Boolean active,
+                                        @Param("minPower") Double minPower,
+                                        @Param("maxPower") Double maxPower,
+                                        @Param("fromYear") Integer fromYear,
+                                        @Param("toYear") Integer toYear,
+                                        Sort sort);
+
+    @Query(value = LOCK_CHANGE_VERSIONS, nativeQuery = true)
+    Integer lockChangeVersions();
+
+    @Query(value = "SELECT " + NEXT_CHANGE_VERSION, nativeQuery = true)
+    long nextChangeVersion();
+
+    @Query("SELECT COALESCE(MAX(e.changeVersion), 0) FROM EnergyObject e")
+    long maxChangeVersion();
+
+    // Лента изменений: только строки, измененные после since, по индексу change_version
+    @Query("SELECT e FROM EnergyObject e WHERE e.changeVersion > :since ORDER BY e.changeVersion")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")})
+    Stream<EnergyObject> streamChangedSince(@Param("since") long since);
+
+    // Очередь плановых ТО "сначала просроченные": по индексу (next_maintenance_due, id),
+    // без COUNT(*) по всей таблице - только признак следующей страницы
+    Slice<EnergyObject> findByNextMaintenanceDueNotNullOrderByNextMaintenanceDueAscIdAsc(Pageable pageable);
+
+    Slice<EnergyObject> findByNextMaintenanceDueBeforeOrderByNextMaintenanceDueAscIdAsc(LocalDate date,
+                                                                                        Pageable pageable);
+
+    long countByNextMaintenanceDueBefore(LocalDate date);
+
+    // Пары (id, дата следующего ТО) для очереди MaintenanceScheduler
+    @Query("SELECT e.id, e.nextMaintenanceDue FROM EnergyObject e WHERE e.nextMaintenanceDue IS NOT NULL")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "5000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    List<Object[]> findMaintenanceSchedule();
+
+    // Координаты и поля значка для пространственного индекса FleetSpatialIndex
+    @Query("SELECT e.id, e.latitude, e.longitude, e.type, e.power, e.active FROM EnergyObject e " +
+            "WHERE e.latitude IS NOT NULL AND e.longitude IS NOT NULL")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "5000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<Object[]> streamCoordinates();
+}
@@ -0,0 +1,29 @@
+package com.energy_company_v1.repository;
+
+import com.energy_company_v1.model.EnergyObjectTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface EnergyObjectTombstoneRepository extends JpaRepository<EnergyObjectTombstone, Long> {
+
+    @Query("SELECT COALESCE(MAX(t.changeVersion), 0) FROM EnergyObjectTombstone t")
+    long maxChangeVersion();
+
+    @Query("SELECT t FROM EnergyObjectTombstone t WHERE t.changeVersion > :since ORDER BY t.changeVersion")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")})
+    Stream<EnergyObjectTombstone> streamChangedSince(@Param("since") long since);
+}
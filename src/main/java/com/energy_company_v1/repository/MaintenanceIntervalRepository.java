@@ -0,0 +1,9 @@
+package com.energy_company_v1.repository;
+
+import com.energy_company_v1.model.MaintenanceInterval;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MaintenanceIntervalRepository extends JpaRepository<MaintenanceInterval, String> {
+}
@@ -1,9 +1,17 @@
 package com.energy_company_v1.repository;
 
+import com.energy_company_v1.dto.UserSummary;
 import com.energy_company_v1.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +20,44 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // Списки для админ-панели: только отображаемые колонки, без пароля и ролей
+    @Query(value = "SELECT new com.energy_company_v1.dto.UserSummary(" +
+            "u.id, u.username, u.email, u.firstName, u.lastName, u.createdAt) FROM User u",
+            countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserSummary> findAllSummaries(Pageable pageable);
+
+    @Query(value = "SELECT new com.energy_company_v1.dto.UserSummary(" +
+            "u.id, u.username, u.email, u.firstName, u.lastName, u.createdAt) FROM User u WHERE " +
+            "LOWER(u.username) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+            "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+            "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :search, '%'))",
+            countQuery = "SELECT COUNT(u) FROM User u WHERE " +
+                    "LOWER(u.username) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+                    "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+                    "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :search, '%'))")
+    Page<UserSummary> searchSummaries(@Param("search") String search, Pageable pageable);
+
+    // Роли сразу для всей страницы пользователей: [user_id, ERole]
+    @Query("SELECT u.id, r.name FROM User u JOIN u.roles r WHERE u.id IN :ids")
+    List<Object[]> findRoleNamesByUserIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.username FROM User u WHERE u.id IN :ids")
+    List<String> findUsernamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Массовые операции одним SQL-запросом на множество пользователей
+    @Modifying(clearAutomatically = true)
+    @Query(value = "DELETE FROM user_roles WHERE user_id IN (:ids)", nativeQuery = true)
+    int deleteRolesByUserIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "INSERT INTO user_roles (user_id, role_id) " +
+            "SELECT u.id, r.id FROM users u CROSS JOIN roles r " +
+            "WHERE u.id IN (:ids) AND r.name IN (:roleNames)", nativeQuery = true)
+    int insertRolesForUserIds(@Param("ids") Collection<Long> ids,
+                              @Param("roleNames") Collection<String> roleNames);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "DELETE FROM users WHERE id IN (:ids)", nativeQuery = true)
+    int deleteUsersByIds(@Param("ids") Collection<Long> ids);
+}
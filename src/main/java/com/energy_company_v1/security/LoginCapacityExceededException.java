@@ -0,0 +1,12 @@
+package com.energy_company_v1.security;
+
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+
+/**
+ * Очередь проверки паролей переполнена - запрос на вход отклоняется сразу (HTTP 503)
+ */
+public class LoginCapacityExceededException extends InternalAuthenticationServiceException {
+    public LoginCapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -1,25 +1,104 @@
 package com.energy_company_v1.security;
 
+import com.energy_company_v1.config.StaticAssetsConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    /**
+     * Хеши с префиксом {id} проверяются соответствующим алгоритмом, старые хеши без префикса - BCrypt.
+     * Хеши не в алгоритме/стоимости security.password.encoder перехешируются при успешном входе
+     * (UserDetailsServiceImpl реализует UserDetailsPasswordService).
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${security.password.encoder:bcrypt}") String encoderId,
+                                           @Value("${security.password.bcrypt.strength:10}") int bcryptStrength,
+                                           @Value("${security.password.argon2.memory-kb:19456}") int argon2MemoryKb,
+                                           @Value("${security.password.argon2.iterations:2}") int argon2Iterations,
+                                           @Value("${security.password.verify.threads:0}") int verifyThreads,
+                                           @Value("${security.password.verify.queue-capacity:64}") int queueCapacity) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("argon2", new Argon2PasswordEncoder(16, 32, 1, argon2MemoryKb, argon2Iterations));
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(encoderId, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int threads = verifyThreads > 0 ? verifyThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new TimedPasswordEncoder(delegating, meterRegistry),
+                threads, queueCapacity);
+    }
+
+    /**
+     * Версионированные статические ресурсы публичны и неизменяемы: цепочка фильтров
+     * (сессия, SecurityContext, заголовки no-cache) для них не выполняется вовсе
+     */
+    @Bean
+    public WebSecurityCustomizer webSecurityCustomizer() {
+        return web -> web.ignoring()
+                .requestMatchers(PathPatternRequestMatcher.withDefaults().matcher(StaticAssetsConfig.ASSETS_PATH));
+    }
+
+    /**
+     * REST API для внешних систем: только HTTP Basic, без сессий, формы входа и перенаправлений.
+     * Страницы приложения (график телеметрии) вызывают API с уже открытой сессией формы входа -
+     * она читается, но новая сессия здесь никогда не создается
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Order(1)
+    public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http) throws Exception {
+        BasicAuthenticationEntryPoint apiEntryPoint = new BasicAuthenticationEntryPoint();
+        apiEntryPoint.setRealmName("energy-company-api");
+
+        HttpSessionSecurityContextRepository existingSession = new HttpSessionSecurityContextRepository();
+        existingSession.setAllowSessionCreation(false);
+
+        http
+                .securityMatcher("/api/**")
+                .csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests(auth -> auth.anyRequest().authenticated())
+                .httpBasic(basic -> basic.authenticationEntryPoint(apiEntryPoint))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .securityContext(context -> context.securityContextRepository(existingSession))
+                .requestCache(cache -> cache.disable())
+                // 401 с WWW-Authenticate вместо перенаправления на форму входа
+                .exceptionHandling(exception -> exception.authenticationEntryPoint(apiEntryPoint));
+
+        return http.build();
     }
 
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
@@ -41,6 +120,8 @@ public class SecurityConfig {
                                 "/error",
                                 "/favicon.ico"
                         ).permitAll()
+                        // Метрики; сам management-порт слушает только localhost
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         // Страницы энергообъектов требуют аутентификации
                         .requestMatchers("/energy-objects/**").authenticated()
                         // Админские страницы требуют роли ADMIN
@@ -51,7 +132,7 @@ public class SecurityConfig {
                         .loginPage("/login")
                         .loginProcessingUrl("/login")
                         .defaultSuccessUrl("/energy-objects", true) // true - всегда перенаправлять сюда
-                        .failureUrl("/login?error=true")
+                        .failureHandler(loginFailureHandler())
                         .permitAll()
                 )
                 .logout(logout -> logout
@@ -72,4 +153,17 @@ public class SecurityConfig {
 
         return http.build();
     }
+
+    // Перегрузка пула проверки паролей - 503 без ожидания, остальные ошибки - обратно на форму
+    private AuthenticationFailureHandler loginFailureHandler() {
+        AuthenticationFailureHandler formFailureHandler = new SimpleUrlAuthenticationFailureHandler("/login?error=true");
+        return (request, response, exception) -> {
+            if (exception instanceof LoginCapacityExceededException) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, exception.getMessage());
+                return;
+            }
+            formFailureHandler.onAuthenticationFailure(request, response, exception);
+        };
+    }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.energy_company_v1.service;
+
+import com.energy_company_v1.model.EnergyObject;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Сброс кэша второго уровня после записи в energy_objects в обход Hibernate (JdbcTemplate, SQL).
+ * Записи через EnergyObjectService Hibernate инвалидирует сам.
+ */
+@Component
+public class EnergyObjectCacheEvictor {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public EnergyObjectCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void evictAll() {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(EnergyObject.class);
+        cache.evictQueryRegions();
+    }
+
+    /**
+     * Только кэш запросов - после вставки новых строк: закэшированные сущности от нее
+     * не устаревают, а страницы списка и COUNT - устаревают
+     */
+    public void evictQueries() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+}
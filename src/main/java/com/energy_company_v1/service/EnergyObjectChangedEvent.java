@@ -0,0 +1,48 @@
+package com.energy_company_v1.service;
+
+import java.util.Map;
+
+/**
+ * Событие внутрипроцессной шины об изменении энергообъекта. Содержит снимок полей
+ * на момент изменения, чтобы подписчикам не нужно было перечитывать объект из БД.
+ */
+public class EnergyObjectChangedEvent {
+    private final Long id;
+    private final Map<String, Object> object;
+    private final boolean bulk;
+
+    private EnergyObjectChangedEvent(Long id, Map<String, Object> object, boolean bulk) {
+        this.id = id;
+        this.object = object;
+        this.bulk = bulk;
+    }
+
+    public static EnergyObjectChangedEvent upserted(Map<String, Object> object) {
+        return new EnergyObjectChangedEvent((Long) object.get("id"), object, false);
+    }
+
+    public static EnergyObjectChangedEvent deleted(Long id) {
+        return new EnergyObjectChangedEvent(id, null, false);
+    }
+
+    // Массовое изменение (импорт): клиентам проще перезагрузить страницу
+    public static EnergyObjectChangedEvent bulk() {
+        return new EnergyObjectChangedEvent(null, null, true);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Map<String, Object> getObject() {
+        return object;
+    }
+
+    public boolean isDeleted() {
+        return !bulk && object == null;
+    }
+
+    public boolean isBulk() {
+        return bulk;
+    }
+}
@@ -0,0 +1,247 @@
+package com.energy_company_v1.service;
+
+import com.energy_company_v1.dto.EnergyObjectFilter;
+import com.energy_company_v1.model.EnergyObject;
+import com.energy_company_v1.model.EnergyObjectTombstone;
+import com.energy_company_v1.repository.EnergyObjectRepository;
+import com.energy_company_v1.repository.EnergyObjectTombstoneRepository;
+import jakarta.persistence.EntityManager;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Потоковая выгрузка реестра энергообъектов в CSV, XLSX и NDJSON.
+ * Строки читаются курсором БД и сразу пишутся в выходной поток,
+ * поэтому расход памяти не зависит от объема выгрузки.
+ */
+@Service
+public class EnergyObjectExportService {
+    private static final String[] HEADERS = {
+            "ID", "Название", "Тип", "Местоположение", "Мощность, МВт",
+            "Год ввода", "КПД, %", "Активен", "Последнее ТО", "Описание", "Широта", "Долгота"
+    };
+
+    // Сколько строк XLSX держать в памяти до сброса на диск
+    private static final int XLSX_ROW_WINDOW = 100;
+
+    private final EnergyObjectRepository energyObjectRepository;
+    private final EnergyObjectTombstoneRepository tombstoneRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public EnergyObjectExportService(EnergyObjectRepository energyObjectRepository,
+                                     EnergyObjectTombstoneRepository tombstoneRepository,
+                                     EntityManager entityManager,
+                                     ObjectMapper objectMapper) {
+        this.energyObjectRepository = energyObjectRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportCsv(String keyword, Sort sort, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        // BOM и разделитель ';' - чтобы Excel с русской локалью открыл файл без мастера импорта
+        writer.write('\uFEFF');
+        writeCsvLine(writer, HEADERS);
+
+        try (Stream<EnergyObject> rows = streamEnergyObjects(keyword, sort)) {
+            Iterator<EnergyObject> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                EnergyObject object = iterator.next();
+                writeCsvLine(writer, toCells(object));
+                entityManager.detach(object);
+            }
+        }
+        writer.flush();
+    }
+
+    @Transactional(readOnly = true)
+    public void exportXlsx(String keyword, Sort sort, OutputStream outputStream) throws IOException {
+        // close() удаляет и временные файлы сброшенных на диск строк
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+             Stream<EnergyObject> rows = streamEnergyObjects(keyword, sort)) {
+            Sheet sheet = workbook.createSheet("Энергообъекты");
+            writeXlsxRow(sheet.createRow(0), HEADERS);
+
+            int rowIndex = 1;
+            Iterator<EnergyObject> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                EnergyObject object = iterator.next();
+                Row row = sheet.createRow(rowIndex++);
+                writeXlsxRow(row, toCells(object));
+                // Числовые колонки пишем числами, чтобы по ним работали формулы
+                setNumber(row, 0, object.getId());
+                setNumber(row, 4, object.getPower());
+                setNumber(row, 5, object.getCommissioningYear());
+                setNumber(row, 6, object.getEfficiency());
+                setNumber(row, 10, object.getLatitude());
+                setNumber(row, 11, object.getLongitude());
+                entityManager.detach(object);
+            }
+            workbook.write(outputStream);
+        }
+    }
+
+    // Те же ветки, что EnergyObjectService.searchEnergyObjects: выгружается ровно то, что показывает список
+    private Stream<EnergyObject> streamEnergyObjects(String keyword, Sort sort) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return energyObjectRepository.streamAll(withIdTieBreaker(sort));
+        }
+        String tsQuery = EnergyObjectService.toPrefixTsQuery(keyword);
+        if (tsQuery.isEmpty()) {
+            // В запросе нет ни одного слова - ищем как подстроку
+            return energyObjectRepository.streamByKeyword(keyword.trim(), withIdTieBreaker(sort));
+        }
+        if (sort.isUnsorted()) {
+            return energyObjectRepository.streamFullTextSearchRanked(tsQuery);
+        }
+        return energyObjectRepository.streamFullTextSearch(tsQuery,
+                EnergyObjectService.toColumnSort(withIdTieBreaker(sort)));
+    }
+
+    // id - последний ключ сортировки: строки с равными значениями выгружаются в устойчивом порядке
+    private static Sort withIdTieBreaker(Sort sort) {
+        if (sort.getOrderFor("id") != null) {
+            return sort;
+        }
+        Sort.Direction direction = sort.isSorted() ? sort.iterator().next().getDirection() : Sort.Direction.ASC;
+        return sort.and(Sort.by(direction, "id"));
+    }
+
+    /**
+     * NDJSON для REST API: по одному JSON-объекту с выбранными полями на строку
+     */
+    @Transactional(readOnly = true)
+    public void exportNdjson(EnergyObjectFilter filter, Sort sort, EnergyObjectFieldSet fields,
+                             OutputStream outputStream) throws IOException {
+        OutputStream out = new BufferedOutputStream(outputStream);
+        try (Stream<EnergyObject> rows = energyObjectRepository.streamByFilter(filter.getType(), filter.getActive(),
+                filter.getMinPower(), filter.getMaxPower(), filter.getFromYear(), filter.getToYear(), sort)) {
+            Iterator<EnergyObject> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                EnergyObject object = iterator.next();
+                out.write(objectMapper.writeValueAsBytes(fields.project(object)));
+                out.write('\n');
+                entityManager.detach(object);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Лента изменений в NDJSON: измененные после since объекты (op=upsert) и удаления
+     * (op=delete) в порядке номера изменения, не более limit записей. Номера выдаются
+     * в порядке фиксации транзакций (EnergyObjectRepository.LOCK_CHANGE_VERSIONS), а оба
+     * потока читаются из одного снимка БД, поэтому после строки с номером N лента уже
+     * не получит изменений с меньшим номером.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void exportChanges(long since, int limit, OutputStream outputStream) throws IOException {
+        OutputStream out = new BufferedOutputStream(outputStream);
+        try (Stream<EnergyObject> objects = energyObjectRepository.streamChangedSince(since);
+             Stream<EnergyObjectTombstone> tombstones = tombstoneRepository.streamChangedSince(since)) {
+            Iterator<EnergyObject> objectIterator = objects.iterator();
+            Iterator<EnergyObjectTombstone> tombstoneIterator = tombstones.iterator();
+            EnergyObject object = objectIterator.hasNext() ? objectIterator.next() : null;
+            EnergyObjectTombstone tombstone = tombstoneIterator.hasNext() ? tombstoneIterator.next() : null;
+
+            // Слияние двух упорядоченных по номеру изменения потоков
+            for (int written = 0; written < limit && (object != null || tombstone != null); written++) {
+                Map<String, Object> change = new LinkedHashMap<>();
+                if (tombstone == null || (object != null && object.getChangeVersion() < tombstone.getChangeVersion())) {
+                    change.put("op", "upsert");
+                    change.put("changeVersion", object.getChangeVersion());
+                    change.put("object", EnergyObjectFieldSet.ALL.project(object));
+                    entityManager.detach(object);
+                    object = objectIterator.hasNext() ? objectIterator.next() : null;
+                } else {
+                    change.put("op", "delete");
+                    change.put("changeVersion", tombstone.getChangeVersion());
+                    change.put("id", tombstone.getObjectId());
+                    change.put("deletedAt", tombstone.getDeletedAt());
+                    entityManager.detach(tombstone);
+                    tombstone = tombstoneIterator.hasNext() ? tombstoneIterator.next() : null;
+                }
+                out.write(objectMapper.writeValueAsBytes(change));
+                out.write('\n');
+            }
+        }
+        out.flush();
+    }
+
+    private static String[] toCells(EnergyObject object) {
+        return new String[]{
+                valueOf(object.getId()),
+                object.getName(),
+                object.getType(),
+                object.getLocation(),
+                valueOf(object.getPower()),
+                valueOf(object.getCommissioningYear()),
+                valueOf(object.getEfficiency()),
+                Boolean.TRUE.equals(object.getActive()) ? "Да" : "Нет",
+                valueOf(object.getLastMaintenanceDate()),
+                object.getDescription(),
+                valueOf(object.getLatitude()),
+                valueOf(object.getLongitude())
+        };
+    }
+
+    private static void writeCsvLine(Writer writer, String[] cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                writer.write(';');
+            }
+            writer.write(escapeCsv(cells[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(';') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    private static void writeXlsxRow(Row row, String[] cells) {
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] != null) {
+                row.createCell(i).setCellValue(cells[i]);
+            }
+        }
+    }
+
+    private static void setNumber(Row row, int column, Number value) {
+        if (value != null) {
+            row.createCell(column).setCellValue(value.doubleValue());
+        }
+    }
+
+    private static String valueOf(Object value) {
+        return value != null ? value.toString() : "";
+    }
+}
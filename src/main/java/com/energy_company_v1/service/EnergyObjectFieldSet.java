@@ -0,0 +1,80 @@
+package com.energy_company_v1.service;
+
+import com.energy_company_v1.model.EnergyObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Набор полей энергообъекта в ответе API (параметр fields=id,name,power).
+ * Без параметра возвращаются все поля.
+ */
+public final class EnergyObjectFieldSet {
+    private static final Map<String, Function<EnergyObject, Object>> ACCESSORS = new LinkedHashMap<>();
+
+    static {
+        ACCESSORS.put("id", EnergyObject::getId);
+        ACCESSORS.put("name", EnergyObject::getName);
+        ACCESSORS.put("type", EnergyObject::getType);
+        ACCESSORS.put("location", EnergyObject::getLocation);
+        ACCESSORS.put("power", EnergyObject::getPower);
+        ACCESSORS.put("commissioningYear", EnergyObject::getCommissioningYear);
+        ACCESSORS.put("efficiency", EnergyObject::getEfficiency);
+        ACCESSORS.put("active", EnergyObject::getActive);
+        ACCESSORS.put("lastMaintenanceDate", EnergyObject::getLastMaintenanceDate);
+        ACCESSORS.put("nextMaintenanceDue", EnergyObject::getNextMaintenanceDue);
+        ACCESSORS.put("description", EnergyObject::getDescription);
+        ACCESSORS.put("latitude", EnergyObject::getLatitude);
+        ACCESSORS.put("longitude", EnergyObject::getLongitude);
+        ACCESSORS.put("changeVersion", EnergyObject::getChangeVersion);
+        ACCESSORS.put("updatedAt", EnergyObject::getUpdatedAt);
+    }
+
+    public static final EnergyObjectFieldSet ALL = new EnergyObjectFieldSet(new ArrayList<>(ACCESSORS.keySet()));
+
+    private final List<String> fields;
+
+    private EnergyObjectFieldSet(List<String> fields) {
+        this.fields = Collections.unmodifiableList(fields);
+    }
+
+    /**
+     * Разбор списка полей через запятую; неизвестное поле - IllegalArgumentException
+     */
+    public static EnergyObjectFieldSet parse(String fields) {
+        if (fields == null || fields.trim().isEmpty()) {
+            return ALL;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!ACCESSORS.containsKey(name)) {
+                throw new IllegalArgumentException("Неизвестное поле: " + name
+                        + ". Допустимые поля: " + String.join(", ", ACCESSORS.keySet()));
+            }
+            selected.add(name);
+        }
+        return selected.isEmpty() ? ALL : new EnergyObjectFieldSet(new ArrayList<>(selected));
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public Map<String, Object> project(EnergyObject energyObject) {
+        Map<String, Object> values = new LinkedHashMap<>(fields.size() * 2);
+        for (String field : fields) {
+            values.put(field, ACCESSORS.get(field).apply(energyObject));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,332 @@
+package com.energy_company_v1.service;
+
+import com.energy_company_v1.dto.ImportReport;
+import com.energy_company_v1.model.EnergyObject;
+import com.energy_company_v1.repository.EnergyObjectRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.exc.StreamReadException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Массовая загрузка энергообъектов из CSV или JSON.
+ * Файл читается потоком, каждая строка проверяется ограничениями Bean Validation
+ * сущности EnergyObject, корректные строки вставляются пакетами JDBC
+ * (каждый пакет - отдельная транзакция).
+ */
+@Service
+public class EnergyObjectImportService {
+    private static final Logger log = LoggerFactory.getLogger(EnergyObjectImportService.class);
+
+    private static final String INSERT_SQL = "INSERT INTO energy_objects " +
+            "(name, type, location, power, commissioning_year, efficiency, active, last_maintenance_date, description, " +
+            "next_maintenance_due, latitude, longitude, change_version, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, " + EnergyObjectRepository.NEXT_CHANGE_VERSION + ", CURRENT_TIMESTAMP)";
+
+    // Заголовки CSV: имена свойств и русские заголовки из выгрузки
+    private static final Map<String, String> HEADER_ALIASES = new HashMap<>();
+
+    static {
+        alias("name", "название");
+        alias("type", "тип");
+        alias("location", "местоположение");
+        alias("power", "мощность", "мощность, мвт");
+        alias("commissioningYear", "год ввода", "commissioning_year");
+        alias("efficiency", "кпд", "кпд, %");
+        alias("active", "активен");
+        alias("lastMaintenanceDate", "последнее то", "last_maintenance_date");
+        alias("description", "описание");
+        alias("latitude", "широта", "lat");
+        alias("longitude", "долгота", "lon", "lng");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final FleetStatisticsCache fleetStatisticsCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EnergyObjectCacheEvictor cacheEvictor;
+    private final MaintenanceIntervals maintenanceIntervals;
+    private final int batchSize;
+
+    public EnergyObjectImportService(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     Validator validator,
+                                     ObjectMapper objectMapper,
+                                     FleetStatisticsCache fleetStatisticsCache,
+                                     ApplicationEventPublisher eventPublisher,
+                                     EnergyObjectCacheEvictor cacheEvictor,
+                                     MaintenanceIntervals maintenanceIntervals,
+                                     @Value("${energy.import.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.fleetStatisticsCache = fleetStatisticsCache;
+        this.eventPublisher = eventPublisher;
+        this.cacheEvictor = cacheEvictor;
+        this.maintenanceIntervals = maintenanceIntervals;
+        this.batchSize = batchSize;
+    }
+
+    public ImportReport importCsv(InputStream inputStream) throws IOException {
+        ImportReport report = new ImportReport();
+        Batch batch = new Batch(report);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String headerLine = peekHeaderLine(reader);
+        if (headerLine.startsWith("\uFEFF")) {
+            reader.skip(1);
+        }
+        char delimiter = headerLine.indexOf(';') >= 0 ? ';' : ',';
+
+        CsvRecordReader records = new CsvRecordReader(reader, delimiter);
+        List<String> header = records.next();
+        if (header == null) {
+            return report;
+        }
+        String[] properties = header.stream()
+                .map(column -> HEADER_ALIASES.get(column.trim().toLowerCase(Locale.ROOT)))
+                .toArray(String[]::new);
+
+        long rowNumber = 1;
+        List<String> fields;
+        while ((fields = records.next()) != null) {
+            rowNumber++;
+            if (fields.size() == 1 && fields.get(0).trim().isEmpty()) {
+                continue;
+            }
+            report.rowRead();
+            try {
+                accept(batch, rowNumber, fromCsv(properties, fields));
+            } catch (IllegalArgumentException e) {
+                report.rowFailed(rowNumber, e.getMessage());
+            }
+        }
+
+        finish(batch);
+        return report;
+    }
+
+    public ImportReport importJson(InputStream inputStream) {
+        ImportReport report = new ImportReport();
+        Batch batch = new Batch(report);
+
+        // Поддерживается как JSON-массив, так и поток объектов (NDJSON)
+        long rowNumber = 0;
+        try (MappingIterator<EnergyObject> objects = objectMapper.readerFor(EnergyObject.class)
+                .readValues(inputStream)) {
+            while (objects.hasNextValue()) {
+                rowNumber++;
+                report.rowRead();
+                try {
+                    accept(batch, rowNumber, objects.nextValue());
+                } catch (StreamReadException e) {
+                    report.rowFailed(rowNumber, "Некорректный JSON: " + e.getOriginalMessage());
+                    break;
+                } catch (RuntimeException e) {
+                    report.rowFailed(rowNumber, e.getMessage());
+                }
+            }
+        } catch (StreamReadException e) {
+            // Ошибка синтаксиса между значениями (из hasNextValue или в начале файла): дальше
+            // поток не разобрать, уже загруженные пакеты остаются - отчет частичный
+            report.rowRead();
+            report.rowFailed(rowNumber + 1, "Некорректный JSON: " + e.getOriginalMessage());
+        }
+
+        finish(batch);
+        return report;
+    }
+
+    private void finish(Batch batch) {
+        batch.flush();
+        // Вставка через JDBC: кэш запросов Hibernate о новых строках не знает. Сбрасывается
+        // один раз на загрузку; кэш сущностей вставка новых строк не затрагивает
+        if (batch.report.getImportedRows() > 0) {
+            cacheEvictor.evictQueries();
+        }
+        fleetStatisticsCache.reconcile();
+        eventPublisher.publishEvent(EnergyObjectChangedEvent.bulk());
+    }
+
+    private void accept(Batch batch, long rowNumber, EnergyObject energyObject) {
+        energyObject.setId(null);
+        if (energyObject.getActive() == null) {
+            energyObject.setActive(true);
+        }
+
+        Set<ConstraintViolation<EnergyObject>> violations = validator.validate(energyObject);
+        if (!violations.isEmpty()) {
+            batch.report.rowFailed(rowNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return;
+        }
+        if ((energyObject.getLatitude() == null) != (energyObject.getLongitude() == null)) {
+            batch.report.rowFailed(rowNumber, "Широта и долгота задаются вместе");
+            return;
+        }
+        batch.add(rowNumber, energyObject);
+    }
+
+    private static EnergyObject fromCsv(String[] properties, List<String> fields) {
+        EnergyObject energyObject = new EnergyObject();
+        for (int i = 0; i < properties.length && i < fields.size(); i++) {
+            String property = properties[i];
+            String value = fields.get(i).trim();
+            if (property == null || value.isEmpty()) {
+                continue;
+            }
+            try {
+                switch (property) {
+                    case "name": energyObject.setName(value); break;
+                    case "type": energyObject.setType(value); break;
+                    case "location": energyObject.setLocation(value); break;
+                    case "power": energyObject.setPower(Double.valueOf(value.replace(',', '.'))); break;
+                    case "commissioningYear": energyObject.setCommissioningYear(Integer.valueOf(value)); break;
+                    case "efficiency": energyObject.setEfficiency(Double.valueOf(value.replace(',', '.'))); break;
+                    case "active": energyObject.setActive(parseBoolean(value)); break;
+                    case "lastMaintenanceDate": energyObject.setLastMaintenanceDate(LocalDate.parse(value)); break;
+                    case "description": energyObject.setDescription(value); break;
+                    case "latitude": energyObject.setLatitude(Double.valueOf(value.replace(',', '.'))); break;
+                    case "longitude": energyObject.setLongitude(Double.valueOf(value.replace(',', '.'))); break;
+                    default: break;
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Некорректное значение '" + value + "' в колонке " + property);
+            }
+        }
+        return energyObject;
+    }
+
+    private static void setNullableDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value != null) {
+            ps.setDouble(index, value);
+        } else {
+            ps.setNull(index, Types.DOUBLE);
+        }
+    }
+
+    private static Boolean parseBoolean(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "true": case "да": case "1": case "yes":
+                return true;
+            case "false": case "нет": case "0": case "no":
+                return false;
+            default:
+                throw new IllegalArgumentException(value);
+        }
+    }
+
+    private static String peekHeaderLine(BufferedReader reader) throws IOException {
+        reader.mark(8192);
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n' && line.length() < 8192) {
+            line.append((char) c);
+        }
+        reader.reset();
+        return line.toString();
+    }
+
+    private static void alias(String property, String... aliases) {
+        HEADER_ALIASES.put(property.toLowerCase(Locale.ROOT), property);
+        for (String alias : aliases) {
+            HEADER_ALIASES.put(alias, property);
+        }
+    }
+
+    /**
+     * Накопитель строк для пакетной вставки
+     */
+    private class Batch {
+        private final ImportReport report;
+        private final List<EnergyObject> objects = new ArrayList<>(batchSize);
+        private final List<Long> rowNumbers = new ArrayList<>(batchSize);
+
+        Batch(ImportReport report) {
+            this.report = report;
+        }
+
+        void add(long rowNumber, EnergyObject energyObject) {
+            objects.add(energyObject);
+            rowNumbers.add(rowNumber);
+            if (objects.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (objects.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.queryForObject(EnergyObjectRepository.LOCK_CHANGE_VERSIONS, Integer.class);
+                    jdbcTemplate.batchUpdate(INSERT_SQL, objects, objects.size(), (ps, object) -> {
+                        ps.setString(1, object.getName());
+                        ps.setString(2, object.getType());
+                        ps.setString(3, object.getLocation());
+                        ps.setDouble(4, object.getPower());
+                        ps.setInt(5, object.getCommissioningYear());
+                        ps.setDouble(6, object.getEfficiency());
+                        ps.setBoolean(7, object.getActive());
+                        if (object.getLastMaintenanceDate() != null) {
+                            ps.setDate(8, Date.valueOf(object.getLastMaintenanceDate()));
+                        } else {
+                            ps.setNull(8, Types.DATE);
+                        }
+                        ps.setString(9, object.getDescription());
+                        LocalDate nextDue = maintenanceIntervals.nextDue(object);
+                        if (nextDue != null) {
+                            ps.setDate(10, Date.valueOf(nextDue));
+                        } else {
+                            ps.setNull(10, Types.DATE);
+                        }
+                        setNullableDouble(ps, 11, object.getLatitude());
+                        setNullableDouble(ps, 12, object.getLongitude());
+                    });
+                });
+                report.rowsImported(objects.size());
+            } catch (DataAccessException e) {
+                log.warn("Пакет из {} строк не загружен: {}", objects.size(), e.getMostSpecificCause().getMessage());
+                for (Long rowNumber : rowNumbers) {
+                    report.rowFailed(rowNumber, "Ошибка записи пакета: " + e.getMostSpecificCause().getMessage());
+                }
+            }
+            objects.clear();
+            rowNumbers.clear();
+        }
+    }
+}
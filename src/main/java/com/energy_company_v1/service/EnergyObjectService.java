@@ -1,20 +1,46 @@
 package com.energy_company_v1.service;
 
+import com.energy_company_v1.dto.CursorPage;
+import com.energy_company_v1.dto.EnergyObjectFilter;
+import com.energy_company_v1.dto.FleetStatistics;
 import com.energy_company_v1.model.EnergyObject;
+import com.energy_company_v1.model.EnergyObjectTombstone;
 import com.energy_company_v1.repository.EnergyObjectRepository;
+import com.energy_company_v1.repository.EnergyObjectTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class EnergyObjectService {
+    private static final Logger log = LoggerFactory.getLogger(EnergyObjectService.class);
+
     private final EnergyObjectRepository energyObjectRepository;
+    private final FleetStatisticsCache fleetStatisticsCache;
+    private final EnergyObjectTombstoneRepository tombstoneRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MaintenanceIntervals maintenanceIntervals;
 
-    public EnergyObjectService(EnergyObjectRepository energyObjectRepository) {
+    public EnergyObjectService(EnergyObjectRepository energyObjectRepository,
+                               FleetStatisticsCache fleetStatisticsCache,
+                               EnergyObjectTombstoneRepository tombstoneRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               MaintenanceIntervals maintenanceIntervals) {
         this.energyObjectRepository = energyObjectRepository;
+        this.fleetStatisticsCache = fleetStatisticsCache;
+        this.tombstoneRepository = tombstoneRepository;
+        this.eventPublisher = eventPublisher;
+        this.maintenanceIntervals = maintenanceIntervals;
     }
 
     public List<EnergyObject> getAllEnergyObjects() {
@@ -30,31 +56,37 @@ public class EnergyObjectService {
                 .orElseThrow(() -> new RuntimeException("Энергообъект не найден"));
     }
 
+    public boolean existsEnergyObject(Long id) {
+        return energyObjectRepository.existsById(id);
+    }
+
     @Transactional
     public EnergyObject createEnergyObject(EnergyObject energyObject) {
-        System.out.println("=== СОЗДАНИЕ ЭНЕРГООБЪЕКТА ===");
-        System.out.println("Название: " + energyObject.getName());
-        System.out.println("Тип: " + energyObject.getType());
-        System.out.println("Местоположение: " + energyObject.getLocation());
-        System.out.println("Мощность: " + energyObject.getPower());
-        System.out.println("Год ввода: " + energyObject.getCommissioningYear());
-        System.out.println("КПД: " + energyObject.getEfficiency());
-        System.out.println("Активен: " + energyObject.getActive());
+        if (log.isDebugEnabled()) {
+            log.debug("Создание энергообъекта: {}", energyObject);
+        }
+        long changeVersion = nextChangeVersion();
 
         if (energyObject.getActive() == null) {
             energyObject.setActive(true);
-            System.out.println("Установлен активен по умолчанию");
         }
+        checkCoordinates(energyObject);
+        energyObject.setNextMaintenanceDue(maintenanceIntervals.nextDue(energyObject));
+        energyObject.setChangeVersion(changeVersion);
 
         EnergyObject saved = energyObjectRepository.save(energyObject);
-        System.out.println("Сохранен объект с ID: " + saved.getId());
+        log.info("Создан энергообъект id={} '{}'", saved.getId(), saved.getName());
+        fleetStatisticsCache.applyChange(null, FleetStatisticsCache.snapshot(saved), changeVersion);
+        eventPublisher.publishEvent(EnergyObjectChangedEvent.upserted(EnergyObjectFieldSet.ALL.project(saved)));
 
         return saved;
     }
 
     @Transactional
     public EnergyObject updateEnergyObject(Long id, EnergyObject energyObjectDetails) {
+        long changeVersion = nextChangeVersion();
         EnergyObject energyObject = getEnergyObjectById(id);
+        FleetStatisticsCache.Snapshot before = FleetStatisticsCache.snapshot(energyObject);
 
         energyObject.setName(energyObjectDetails.getName());
         energyObject.setType(energyObjectDetails.getType());
@@ -65,43 +97,197 @@ public class EnergyObjectService {
         energyObject.setActive(energyObjectDetails.getActive());
         energyObject.setLastMaintenanceDate(energyObjectDetails.getLastMaintenanceDate());
         energyObject.setDescription(energyObjectDetails.getDescription());
+        energyObject.setLatitude(energyObjectDetails.getLatitude());
+        energyObject.setLongitude(energyObjectDetails.getLongitude());
+        checkCoordinates(energyObject);
+        return save(energyObject, before, changeVersion);
+    }
 
-        return energyObjectRepository.save(energyObject);
+    /**
+     * Отметка о проведенном ТО: дата последнего ТО и пересчет даты следующего
+     */
+    @Transactional
+    public EnergyObject recordMaintenance(Long id, LocalDate date) {
+        long changeVersion = nextChangeVersion();
+        EnergyObject energyObject = getEnergyObjectById(id);
+        FleetStatisticsCache.Snapshot before = FleetStatisticsCache.snapshot(energyObject);
+        energyObject.setLastMaintenanceDate(date);
+        return save(energyObject, before, changeVersion);
+    }
+
+    private EnergyObject save(EnergyObject energyObject, FleetStatisticsCache.Snapshot before, long changeVersion) {
+        energyObject.setNextMaintenanceDue(maintenanceIntervals.nextDue(energyObject));
+        energyObject.setChangeVersion(changeVersion);
+
+        EnergyObject saved = energyObjectRepository.save(energyObject);
+        fleetStatisticsCache.applyChange(before, FleetStatisticsCache.snapshot(saved), changeVersion);
+        eventPublisher.publishEvent(EnergyObjectChangedEvent.upserted(EnergyObjectFieldSet.ALL.project(saved)));
+        return saved;
     }
 
     @Transactional
     public void deleteEnergyObject(Long id) {
+        long changeVersion = nextChangeVersion();
         EnergyObject energyObject = getEnergyObjectById(id);
         energyObjectRepository.delete(energyObject);
+        tombstoneRepository.save(new EnergyObjectTombstone(id, changeVersion));
+        fleetStatisticsCache.applyChange(FleetStatisticsCache.snapshot(energyObject), null, changeVersion);
+        eventPublisher.publishEvent(EnergyObjectChangedEvent.deleted(id));
+    }
+
+    // Номер изменения берется первым в транзакции: блокировка номеров держится до коммита,
+    // и запись строки объекта до нее могла бы встать во взаимное ожидание с другой транзакцией
+    private long nextChangeVersion() {
+        energyObjectRepository.lockChangeVersions();
+        return energyObjectRepository.nextChangeVersion();
     }
 
+    /**
+     * Полнотекстовый поиск по названию, местоположению, типу и описанию
+     * с пагинацией и сортировкой на стороне БД. Каждое слово запроса
+     * ищется по префиксу с учетом русской морфологии; без явной сортировки
+     * результаты упорядочены по релевантности.
+     */
+    @Transactional(readOnly = true)
     public Page<EnergyObject> searchEnergyObjects(String keyword, Pageable pageable) {
         if (keyword == null || keyword.trim().isEmpty()) {
-            return energyObjectRepository.searchByKeywordPageable(keyword.toLowerCase(), pageable);
+            return energyObjectRepository.findAll(pageable);
         }
 
-        // Получаем все результаты поиска
-        List<EnergyObject> searchResults = energyObjectRepository.searchByKeyword(keyword);
+        String tsQuery = toPrefixTsQuery(keyword);
+        if (tsQuery.isEmpty()) {
+            // В запросе нет ни одного слова - ищем как подстроку
+            return energyObjectRepository.searchByKeywordPageable(keyword.trim(), pageable);
+        }
+        if (pageable.getSort().isUnsorted()) {
+            return energyObjectRepository.fullTextSearchRanked(tsQuery, pageable);
+        }
+        return energyObjectRepository.fullTextSearch(tsQuery, toColumnSort(pageable));
+    }
 
-        // Рассчитываем пагинацию вручную
-        int pageSize = pageable.getPageSize();
-        int currentPage = pageable.getPageNumber();
-        int startItem = currentPage * pageSize;
+    /**
+     * Выборка для REST API по фильтру полей с пагинацией на стороне БД
+     */
+    @Transactional(readOnly = true)
+    public Page<EnergyObject> findEnergyObjects(EnergyObjectFilter filter, Pageable pageable) {
+        return energyObjectRepository.findByFilter(filter.getType(), filter.getActive(),
+                filter.getMinPower(), filter.getMaxPower(), filter.getFromYear(), filter.getToYear(), pageable);
+    }
 
-        List<EnergyObject> pageContent;
+    /**
+     * Широта и долгота задаются только вместе (как и в ограничении chk_energy_objects_coordinates)
+     */
+    static void checkCoordinates(EnergyObject energyObject) {
+        if ((energyObject.getLatitude() == null) != (energyObject.getLongitude() == null)) {
+            throw new IllegalArgumentException("Широта и долгота задаются вместе");
+        }
+    }
 
-        if (searchResults.size() < startItem) {
-            pageContent = List.of();
+    // "Ленинградская АЭС" -> "Ленинградская:* & АЭС:*"
+    static String toPrefixTsQuery(String keyword) {
+        StringBuilder query = new StringBuilder();
+        for (String word : keyword.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (query.length() > 0) {
+                query.append(" & ");
+            }
+            query.append(word).append(":*");
+        }
+        return query.toString();
+    }
+
+    // Нативный запрос сортируется по колонкам: commissioningYear -> commissioning_year
+    private static Pageable toColumnSort(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), toColumnSort(pageable.getSort()));
+    }
+
+    static Sort toColumnSort(Sort sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String column = order.getProperty().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase();
+            orders.add(new Sort.Order(order.getDirection(), column));
+        }
+        return Sort.by(orders);
+    }
+
+    /**
+     * Курсорная (keyset) навигация по списку: сортировка по одному из
+     * SORTABLE_PROPERTIES и id, без OFFSET и без обязательного COUNT(*)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<EnergyObject> scrollEnergyObjects(String keyword, String sortBy, Sort.Direction direction,
+                                                        String after, String before, int size,
+                                                        boolean withTotal) {
+        String property = KeysetCursor.SORTABLE_PROPERTIES.contains(sortBy) ? sortBy : "id";
+        Sort sort = Sort.by(direction, property);
+        if (!"id".equals(property)) {
+            sort = sort.and(Sort.by(direction, "id"));
+        }
+
+        boolean backward = before != null && !before.isEmpty();
+        boolean initial = !backward && (after == null || after.isEmpty());
+        KeysetScrollPosition position;
+        if (backward) {
+            position = ScrollPosition.backward(KeysetCursor.decode(before, property));
+        } else if (!initial) {
+            position = ScrollPosition.forward(KeysetCursor.decode(after, property));
         } else {
-            int toIndex = Math.min(startItem + pageSize, searchResults.size());
-            pageContent = searchResults.subList(startItem, toIndex);
+            position = ScrollPosition.keyset();
         }
 
-        return new PageImpl<>(
-                pageContent,
-                pageable,
-                searchResults.size()
-        );
+        Window<EnergyObject> window;
+        if (keyword == null || keyword.trim().isEmpty()) {
+            window = energyObjectRepository.findAllBy(position, sort, Limit.of(size));
+        } else {
+            // Тот же предикат, что у searchEnergyObjects: полнотекстовый, без слов - подстрока
+            String tsQuery = toPrefixTsQuery(keyword);
+            if (tsQuery.isEmpty()) {
+                String term = keyword.trim();
+                window = energyObjectRepository
+                        .findByNameContainingIgnoreCaseOrLocationContainingIgnoreCaseOrTypeContainingIgnoreCase(
+                                term, term, term, position, sort, Limit.of(size));
+            } else {
+                window = energyObjectRepository.scrollFullTextSearch(tsQuery, position, sort, Limit.of(size));
+            }
+        }
+
+        String firstCursor = null;
+        String lastCursor = null;
+        if (!window.isEmpty()) {
+            firstCursor = KeysetCursor.encode(property, window.positionAt(0));
+            lastCursor = KeysetCursor.encode(property, window.positionAt(window.size() - 1));
+        }
+
+        // При прокрутке назад hasNext() означает наличие более ранних записей
+        String nextCursor = backward || window.hasNext() ? lastCursor : null;
+        String previousCursor = backward ? (window.hasNext() ? firstCursor : null)
+                : (initial ? null : firstCursor);
+
+        Long approximateTotal = null;
+        if (withTotal) {
+            Long estimate = energyObjectRepository.estimateCount();
+            approximateTotal = estimate != null && estimate >= 0 ? estimate : energyObjectRepository.count();
+        }
+
+        return new CursorPage<>(window.getContent(), property,
+                direction.name().toLowerCase(), nextCursor, previousCursor, approximateTotal);
+    }
+
+    /**
+     * Очередь плановых ТО: сначала просроченные, затем по ближайшей дате.
+     * overdueOnly - только объекты с датой ТО раньше today
+     */
+    @Transactional(readOnly = true)
+    public Slice<EnergyObject> getMaintenanceQueue(boolean overdueOnly, LocalDate today, Pageable pageable) {
+        return overdueOnly
+                ? energyObjectRepository.findByNextMaintenanceDueBeforeOrderByNextMaintenanceDueAscIdAsc(today, pageable)
+                : energyObjectRepository.findByNextMaintenanceDueNotNullOrderByNextMaintenanceDueAscIdAsc(pageable);
+    }
+
+    public long countOverdueMaintenance(LocalDate today) {
+        return energyObjectRepository.countByNextMaintenanceDueBefore(today);
     }
 
     public List<EnergyObject> getEnergyObjectsSorted(String sortBy, String direction) {
@@ -112,21 +298,34 @@ public class EnergyObjectService {
     }
 
     // Статистические методы
+
+    /**
+     * Статистика по парку из инкрементального кэша, без обращения к БД
+     */
+    public FleetStatistics getFleetStatistics() {
+        return fleetStatisticsCache.getStatistics();
+    }
+
+    public Optional<EnergyObject> getOldestEnergyObject() {
+        return energyObjectRepository.findFirstByOrderByCommissioningYearAsc();
+    }
+
+    public Optional<EnergyObject> getNewestEnergyObject() {
+        return energyObjectRepository.findFirstByOrderByCommissioningYearDesc();
+    }
+
     public Map<String, Object> getStatistics() {
-        Double averagePower = energyObjectRepository.findAveragePower();
-        Double totalActivePower = energyObjectRepository.findTotalActivePower();
-        List<Object[]> countByType = energyObjectRepository.countByType();
-        Long totalObjects = energyObjectRepository.count();
-        Long activeObjects = energyObjectRepository.findAll().stream()
-                .filter(EnergyObject::getActive)
-                .count();
+        FleetStatistics statistics = getFleetStatistics();
+        List<Object[]> countByType = statistics.getTypeCounts().entrySet().stream()
+                .map(entry -> new Object[]{entry.getKey(), entry.getValue()})
+                .collect(Collectors.toList());
 
         return Map.of(
-                "averagePower", averagePower != null ? averagePower : 0,
-                "totalActivePower", totalActivePower != null ? totalActivePower : 0,
+                "averagePower", statistics.getAveragePower(),
+                "totalActivePower", statistics.getTotalActivePower(),
                 "countByType", countByType,
-                "totalObjects", totalObjects,
-                "activeObjects", activeObjects
+                "totalObjects", statistics.getTotalObjects(),
+                "activeObjects", statistics.getActiveObjects()
         );
     }
 
@@ -0,0 +1,31 @@
+package com.energy_company_v1.service;
+
+import com.energy_company_v1.repository.EnergyObjectRepository;
+import com.energy_company_v1.repository.EnergyObjectTombstoneRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Версия таблицы энергообъектов для ETag REST API - наибольший номер изменения
+ * среди объектов и надгробий удаленных. Два чтения MAX по индексу change_version из одного
+ * снимка БД; учитывает и изменения, сделанные другими экземплярами приложения или импортом.
+ * Номера выдаются в порядке фиксации транзакций, поэтому зафиксированное позже изменение
+ * всегда увеличивает версию.
+ */
+@Component
+public class EnergyObjectTableVersion {
+    private final EnergyObjectRepository energyObjectRepository;
+    private final EnergyObjectTombstoneRepository tombstoneRepository;
+
+    public EnergyObjectTableVersion(EnergyObjectRepository energyObjectRepository,
+                                    EnergyObjectTombstoneRepository tombstoneRepository) {
+        this.energyObjectRepository = energyObjectRepository;
+        this.tombstoneRepository = tombstoneRepository;
+    }
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public long current() {
+        return Math.max(energyObjectRepository.maxChangeVersion(), tombstoneRepository.maxChangeVersion());
+    }
+}
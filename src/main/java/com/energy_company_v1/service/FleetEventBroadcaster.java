@@ -0,0 +1,326 @@
+package com.energy_company_v1.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Рассылка изменений парка открытым страницам списка и статистики по SSE.
+ * События шины накапливаются и раз в energy.events.coalesce-interval отправляются
+ * одной пачкой: последнее состояние каждого измененного объекта, удаления и статистика
+ * из FleetStatisticsCache. Сообщение сериализуется один раз на всех подписчиков,
+ * к БД рассылка не обращается.
+ * <p>
+ * У каждого подписчика не больше одной отправки в работе и одного ожидающего кадра:
+ * пока медленное соединение не приняло предыдущий кадр, новые заменяют ожидающий
+ * (пропущенные изменения списка - признаком перезагрузки). Отправка дольше
+ * energy.events.send-timeout завершает соединение.
+ */
+@Component
+public class FleetEventBroadcaster implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(FleetEventBroadcaster.class);
+
+    // Больше изменений в одной пачке - клиентам отправляется только признак перезагрузки
+    private static final int MAX_ROWS_PER_BATCH = 500;
+
+    private final FleetStatisticsCache fleetStatisticsCache;
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMillis;
+    private final long sendTimeoutNanos;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Запись в медленное соединение не задерживает остальных подписчиков
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ReentrantLock pendingLock = new ReentrantLock();
+    private Map<Long, EnergyObjectChangedEvent> pending = new LinkedHashMap<>();
+    private boolean pendingBulk;
+
+    public FleetEventBroadcaster(FleetStatisticsCache fleetStatisticsCache,
+                                 ObjectMapper objectMapper,
+                                 @Value("${energy.events.emitter-timeout:PT30M}") Duration emitterTimeout,
+                                 @Value("${energy.events.send-timeout:PT10S}") Duration sendTimeout) {
+        this.fleetStatisticsCache = fleetStatisticsCache;
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+    }
+
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(emitterTimeoutMillis));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // После коммита: откаченные изменения клиентам не показываются
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnergyObjectChanged(EnergyObjectChangedEvent event) {
+        pendingLock.lock();
+        try {
+            if (event.isBulk()) {
+                pendingBulk = true;
+            } else {
+                pending.put(event.getId(), event);
+            }
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${energy.events.coalesce-interval:PT0.25S}")
+    public void flush() {
+        Map<Long, EnergyObjectChangedEvent> changes;
+        boolean bulk;
+        pendingLock.lock();
+        try {
+            if (pending.isEmpty() && !pendingBulk) {
+                return;
+            }
+            changes = pending;
+            bulk = pendingBulk;
+            pending = new LinkedHashMap<>();
+            pendingBulk = false;
+        } finally {
+            pendingLock.unlock();
+        }
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        boolean reload = bulk || changes.size() > MAX_ROWS_PER_BATCH;
+        List<Map<String, Object>> upserts = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        if (!reload) {
+            for (EnergyObjectChangedEvent change : changes.values()) {
+                if (change.isDeleted()) {
+                    deletes.add(change.getId());
+                } else {
+                    upserts.add(change.getObject());
+                }
+            }
+        }
+
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("seq", sequence.incrementAndGet());
+        message.put("reload", reload);
+        message.put("upserts", upserts);
+        message.put("deletes", deletes);
+        message.put("statistics", fleetStatisticsCache.getStatistics());
+        Set<ResponseBodyEmitter.DataWithMediaType> data = fleetEvent(message);
+
+        // Для подписчика, не успевшего получить предыдущую пачку: ее изменения теряются,
+        // поэтому вместо них - признак перезагрузки с той же статистикой
+        Set<ResponseBodyEmitter.DataWithMediaType> merged = data;
+        if (!reload) {
+            message.put("reload", true);
+            message.put("upserts", List.of());
+            message.put("deletes", List.of());
+            merged = fleetEvent(message);
+        }
+        broadcast(new Frame(data, merged));
+    }
+
+    // Комментарий-пульс: держит соединение через прокси и выявляет закрытые вкладки
+    @Scheduled(fixedDelayString = "${energy.events.heartbeat-interval:PT25S}")
+    public void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            broadcast(new Frame(SseEmitter.event().comment("ping").build(), null));
+        }
+    }
+
+    // Соединение, не принявшее кадр за energy.events.send-timeout, закрывается: иначе
+    // отправка к зависшему клиенту держала бы поток и кадр до истечения emitter-timeout
+    @Scheduled(fixedDelayString = "${energy.events.send-timeout:PT10S}")
+    public void closeStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now, sendTimeoutNanos)) {
+                log.debug("Подписчик SSE не принимает данные дольше {} мс, соединение закрывается",
+                        sendTimeoutNanos / 1_000_000);
+                subscribers.remove(subscriber);
+                subscriber.close();
+                // complete() ждет блокировку emitter, занятую зависшей отправкой, - не в потоке планировщика
+                sendExecutor.execute(subscriber.emitter::complete);
+            }
+        }
+    }
+
+    // build() дописывает в построитель, поэтому кадр собирается один раз до рассылки
+    private Set<ResponseBodyEmitter.DataWithMediaType> fleetEvent(Map<String, Object> message) {
+        return SseEmitter.event().name("fleet")
+                .data(objectMapper.writeValueAsString(message), MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    private void broadcast(Frame frame) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offer(frame)) {
+                sendExecutor.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    // Отправка ожидающих кадров подписчика; одновременно работает не больше одной на подписчика
+    private void drain(Subscriber subscriber) {
+        Set<ResponseBodyEmitter.DataWithMediaType> data;
+        while ((data = subscriber.nextToSend()) != null) {
+            try {
+                subscriber.emitter.send(data);
+            } catch (Exception e) {
+                log.debug("Подписчик SSE отключен: {}", e.getMessage());
+                subscribers.remove(subscriber);
+                subscriber.close();
+                return;
+            } finally {
+                subscriber.sent();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        sendExecutor.shutdownNow();
+    }
+
+    /**
+     * Кадр рассылки: data - обычная отправка, merged - замена, если у подписчика уже ждет
+     * неотправленная пачка (null - кадр ничего не несет, например пульс)
+     */
+    private static final class Frame {
+        private final Set<ResponseBodyEmitter.DataWithMediaType> data;
+        private final Set<ResponseBodyEmitter.DataWithMediaType> merged;
+
+        private Frame(Set<ResponseBodyEmitter.DataWithMediaType> data,
+                      Set<ResponseBodyEmitter.DataWithMediaType> merged) {
+            this.data = data;
+            this.merged = merged;
+        }
+
+        private boolean isHeartbeat() {
+            return merged == null;
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        // ReentrantLock, а не synchronized: см. FleetStatisticsCache
+        private final ReentrantLock lock = new ReentrantLock();
+        // Все поля ниже - под lock
+        private Set<ResponseBodyEmitter.DataWithMediaType> pending;
+        private boolean pendingHeartbeat;
+        private boolean sending;
+        private boolean closed;
+        private long sendStartedNanos;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Поставить кадр в ожидание; true - отправка не идет и ее нужно запустить
+         */
+        private boolean offer(Frame frame) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                if (pending == null || pendingHeartbeat) {
+                    pending = frame.data;
+                    pendingHeartbeat = frame.isHeartbeat();
+                } else if (!frame.isHeartbeat()) {
+                    // Ожидающая пачка еще не ушла - объединяется с новой
+                    pending = frame.merged;
+                }
+                if (sending) {
+                    return false;
+                }
+                sending = true;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Set<ResponseBodyEmitter.DataWithMediaType> nextToSend() {
+            lock.lock();
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> next = closed ? null : pending;
+                pending = null;
+                if (next == null) {
+                    sending = false;
+                } else {
+                    sendStartedNanos = System.nanoTime();
+                }
+                return next;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void sent() {
+            lock.lock();
+            try {
+                sendStartedNanos = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isStalled(long now, long timeoutNanos) {
+            lock.lock();
+            try {
+                return sendStartedNanos != 0 && now - sendStartedNanos > timeoutNanos;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void close() {
+            lock.lock();
+            try {
+                closed = true;
+                pending = null;
+                sending = false;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
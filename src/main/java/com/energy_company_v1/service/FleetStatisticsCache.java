@@ -0,0 +1,286 @@
+package com.energy_company_v1.service;
+
+import com.energy_company_v1.dto.FleetStatistics;
+import com.energy_company_v1.dto.TypeStatistics;
+import com.energy_company_v1.model.EnergyObject;
+import com.energy_company_v1.repository.EnergyObjectRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Инкрементально поддерживаемые счетчики статистики по типам энергообъектов.
+ * Обновляется дельтами из EnergyObjectService, полностью пересчитывается из БД
+ * при старте и периодически для сверки.
+ * <p>
+ * Дельты, пришедшие во время пересчета, копятся и после него сверяются по номеру изменения:
+ * агрегат и версия таблицы читаются из одного снимка БД, номера выдаются в порядке коммитов,
+ * поэтому дельта с номером не больше версии снимка в агрегате уже учтена, а с большим - нет.
+ * Версия последнего снимка остается отметкой: afterCommit транзакции может выполниться уже
+ * после пересчета, чей снимок ее изменение видел, и такая дельта отбрасывается.
+ */
+@Component
+public class FleetStatisticsCache {
+    private static final Logger log = LoggerFactory.getLogger(FleetStatisticsCache.class);
+
+    private final EnergyObjectRepository energyObjectRepository;
+    private final EnergyObjectTableVersion tableVersion;
+    private final TransactionTemplate snapshotTransaction;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Применение дельт и подмена счетчиков после пересчета
+    private final ReentrantLock deltaLock = new ReentrantLock();
+
+    private volatile Map<String, TypeCounters> countersByType;
+    // Под deltaLock: дельты, зафиксированные с начала текущего пересчета (null - пересчета нет)
+    private List<Delta> pendingDeltas;
+    // Пишется под deltaLock: номер изменения, по который включительно счетчики уже учитывают БД
+    private volatile long snapshotWatermark = Long.MIN_VALUE;
+
+    public FleetStatisticsCache(EnergyObjectRepository energyObjectRepository,
+                                EnergyObjectTableVersion tableVersion,
+                                PlatformTransactionManager transactionManager) {
+        this.energyObjectRepository = energyObjectRepository;
+        this.tableVersion = tableVersion;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Текущая статистика, O(количество типов)
+     */
+    public FleetStatistics getStatistics() {
+        Map<String, TypeCounters> counters = countersByType;
+        if (counters == null) {
+            counters = rebuild();
+        }
+        return new FleetStatistics(counters.values());
+    }
+
+    // Первичный расчет в фоне, чтобы не задерживать готовность приложения
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    // Периодическая сверка с БД на случай изменений в обход сервиса
+    @Scheduled(initialDelayString = "${energy.statistics.reconcile-interval:PT5M}",
+            fixedDelayString = "${energy.statistics.reconcile-interval:PT5M}")
+    public void reconcile() {
+        rebuild();
+    }
+
+    // ReentrantLock вместо synchronized: запрос к БД под монитором закрепляет
+    // виртуальный поток за несущим потоком платформы
+    private Map<String, TypeCounters> rebuild() {
+        rebuildLock.lock();
+        try {
+            deltaLock.lock();
+            try {
+                pendingDeltas = new ArrayList<>();
+            } finally {
+                deltaLock.unlock();
+            }
+
+            Map<String, TypeCounters> fresh = new ConcurrentHashMap<>();
+            long snapshotVersion;
+            try {
+                snapshotVersion = snapshotTransaction.execute(status -> {
+                    for (TypeStatistics row : energyObjectRepository.aggregateByType()) {
+                        fresh.computeIfAbsent(row.getType(), TypeCounters::new).add(row);
+                    }
+                    return tableVersion.current();
+                });
+            } catch (RuntimeException e) {
+                deltaLock.lock();
+                try {
+                    pendingDeltas = null;
+                } finally {
+                    deltaLock.unlock();
+                }
+                throw e;
+            }
+
+            int replayed = 0;
+            deltaLock.lock();
+            try {
+                for (Delta delta : pendingDeltas) {
+                    if (delta.version > snapshotVersion) {
+                        delta.applyTo(fresh);
+                        replayed++;
+                    }
+                }
+                pendingDeltas = null;
+                snapshotWatermark = snapshotVersion;
+                countersByType = fresh;
+            } finally {
+                deltaLock.unlock();
+            }
+            log.debug("Статистика энергообъектов пересчитана: {} типов, версия {}, дельт после снимка {}",
+                    fresh.size(), snapshotVersion, replayed);
+            return fresh;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Снимок значимых для статистики полей до изменения сущности
+     */
+    public static Snapshot snapshot(EnergyObject energyObject) {
+        return energyObject != null ? new Snapshot(energyObject) : null;
+    }
+
+    /**
+     * Применить изменение объекта с номером изменения version: before == null - создание,
+     * after == null - удаление. Внутри транзакции дельта применяется только после успешного коммита.
+     */
+    public void applyChange(Snapshot before, Snapshot after, long version) {
+        Delta delta = new Delta(before, after, version);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyDelta(delta);
+                }
+            });
+        } else {
+            applyDelta(delta);
+        }
+    }
+
+    private void applyDelta(Delta delta) {
+        deltaLock.lock();
+        try {
+            // Изменение уже в снимке, по которому построены текущие счетчики
+            if (delta.version <= snapshotWatermark) {
+                return;
+            }
+            if (pendingDeltas != null) {
+                pendingDeltas.add(delta);
+            }
+            Map<String, TypeCounters> counters = countersByType;
+            // Еще не построен - счетчики появятся после пересчета вместе с накопленными дельтами
+            if (counters != null) {
+                delta.applyTo(counters);
+            }
+        } finally {
+            deltaLock.unlock();
+        }
+    }
+
+    private static final class Delta {
+        private final Snapshot before;
+        private final Snapshot after;
+        private final long version;
+
+        private Delta(Snapshot before, Snapshot after, long version) {
+            this.before = before;
+            this.after = after;
+            this.version = version;
+        }
+
+        private void applyTo(Map<String, TypeCounters> counters) {
+            if (before != null) {
+                counters.computeIfAbsent(before.type, TypeCounters::new).apply(before, -1);
+            }
+            if (after != null) {
+                counters.computeIfAbsent(after.type, TypeCounters::new).apply(after, 1);
+            }
+        }
+    }
+
+    public static final class Snapshot {
+        private final String type;
+        private final boolean active;
+        private final double power;
+        private final double efficiency;
+
+        private Snapshot(EnergyObject energyObject) {
+            this.type = energyObject.getType();
+            this.active = Boolean.TRUE.equals(energyObject.getActive());
+            this.power = energyObject.getPower() != null ? energyObject.getPower() : 0.0;
+            this.efficiency = energyObject.getEfficiency() != null ? energyObject.getEfficiency() : 0.0;
+        }
+    }
+
+    static final class TypeCounters implements TypeStatistics {
+        private final String type;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder activeCount = new LongAdder();
+        private final DoubleAdder totalPower = new DoubleAdder();
+        private final DoubleAdder activePower = new DoubleAdder();
+        private final DoubleAdder efficiencySum = new DoubleAdder();
+
+        TypeCounters(String type) {
+            this.type = type;
+        }
+
+        void add(TypeStatistics row) {
+            count.add(row.getCount() != null ? row.getCount() : 0L);
+            activeCount.add(row.getActiveCount() != null ? row.getActiveCount() : 0L);
+            totalPower.add(row.getTotalPower() != null ? row.getTotalPower() : 0.0);
+            activePower.add(row.getActivePower() != null ? row.getActivePower() : 0.0);
+            efficiencySum.add(row.getEfficiencySum() != null ? row.getEfficiencySum() : 0.0);
+        }
+
+        void apply(Snapshot snapshot, int sign) {
+            count.add(sign);
+            totalPower.add(sign * snapshot.power);
+            efficiencySum.add(sign * snapshot.efficiency);
+            if (snapshot.active) {
+                activeCount.add(sign);
+                activePower.add(sign * snapshot.power);
+            }
+        }
+
+        @Override
+        public String getType() {
+            return type;
+        }
+
+        @Override
+        public Long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public Long getActiveCount() {
+            return activeCount.sum();
+        }
+
+        @Override
+        public Double getTotalPower() {
+            return totalPower.sum();
+        }
+
+        @Override
+        public Double getActivePower() {
+            return activePower.sum();
+        }
+
+        @Override
+        public Double getEfficiencySum() {
+            return efficiencySum.sum();
+        }
+    }
+}
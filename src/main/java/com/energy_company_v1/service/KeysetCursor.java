@@ -0,0 +1,70 @@
+package com.energy_company_v1.service;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Кодирование позиции keyset-прокрутки (значение ключа сортировки + id)
+ * в непрозрачную строку курсора и обратно
+ */
+public final class KeysetCursor {
+    public static final Set<String> SORTABLE_PROPERTIES =
+            Set.of("id", "name", "power", "commissioningYear", "efficiency");
+
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(String sortBy, ScrollPosition position) {
+        Map<String, ?> keys = ((KeysetScrollPosition) position).getKeys();
+        String raw = sortBy + SEPARATOR + keys.get("id") + SEPARATOR + keys.get(sortBy);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException если курсор поврежден или выдан для другой сортировки
+     */
+    public static Map<String, Object> decode(String cursor, String sortBy) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Некорректный курсор");
+        }
+
+        String[] parts = raw.split("\\|", 3);
+        if (parts.length != 3 || !parts[0].equals(sortBy)) {
+            throw new IllegalArgumentException("Курсор не соответствует сортировке " + sortBy);
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            keys.put(sortBy, parseValue(sortBy, parts[2]));
+            keys.put("id", Long.valueOf(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректный курсор");
+        }
+        return keys;
+    }
+
+    private static Object parseValue(String property, String value) {
+        switch (property) {
+            case "id":
+                return Long.valueOf(value);
+            case "power":
+            case "efficiency":
+                return Double.valueOf(value);
+            case "commissioningYear":
+                return Integer.valueOf(value);
+            default:
+                return value;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.energy_company_v1.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Событие внутрипроцессной шины: у энергообъектов наступила дата планового ТО.
+ * Публикуется MaintenanceScheduler один раз на каждую дату ТО объекта; даты, наступившие,
+ * пока приложение было остановлено, объявляются при следующем запуске.
+ */
+public class MaintenanceDueEvent {
+    private final LocalDate date;
+    private final List<Due> objects;
+
+    public MaintenanceDueEvent(LocalDate date, List<Due> objects) {
+        this.date = date;
+        this.objects = List.copyOf(objects);
+    }
+
+    // День, на который сработал планировщик
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public List<Due> getObjects() {
+        return objects;
+    }
+
+    public long getOverdueCount() {
+        return objects.stream().filter(due -> due.getDueDate().isBefore(date)).count();
+    }
+
+    public static final class Due {
+        private final Long objectId;
+        private final LocalDate dueDate;
+
+        public Due(Long objectId, LocalDate dueDate) {
+            this.objectId = objectId;
+            this.dueDate = dueDate;
+        }
+
+        public Long getObjectId() {
+            return objectId;
+        }
+
+        public LocalDate getDueDate() {
+            return dueDate;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.energy_company_v1.service;
+
+import com.energy_company_v1.model.EnergyObject;
+import com.energy_company_v1.model.MaintenanceInterval;
+import com.energy_company_v1.repository.MaintenanceIntervalRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Межремонтные интервалы по типам энергообъектов (таблица maintenance_intervals) и расчет
+ * даты следующего ТО. Справочник маленький и меняется редко: читается один раз и держится
+ * в памяти до refresh().
+ */
+@Component
+public class MaintenanceIntervals {
+    private final MaintenanceIntervalRepository intervalRepository;
+    private final Period defaultInterval;
+
+    private volatile Map<String, Period> intervalsByType;
+
+    public MaintenanceIntervals(MaintenanceIntervalRepository intervalRepository,
+                                @Value("${energy.maintenance.default-interval:P1Y}") Period defaultInterval) {
+        this.intervalRepository = intervalRepository;
+        this.defaultInterval = defaultInterval;
+    }
+
+    /**
+     * Интервал для типа; для типа без записи в справочнике - energy.maintenance.default-interval
+     */
+    public Period intervalFor(String type) {
+        Map<String, Period> intervals = intervalsByType;
+        if (intervals == null) {
+            intervals = refresh();
+        }
+        return intervals.getOrDefault(type, defaultInterval);
+    }
+
+    /**
+     * Дата следующего ТО: последнее ТО плюс интервал; объект без ТО отсчитывается
+     * от 1 января года ввода. null - если не от чего отсчитывать
+     */
+    public LocalDate nextDue(String type, LocalDate lastMaintenanceDate, Integer commissioningYear) {
+        LocalDate base = lastMaintenanceDate;
+        if (base == null && commissioningYear != null) {
+            base = LocalDate.of(commissioningYear, 1, 1);
+        }
+        return base != null ? base.plus(intervalFor(type)) : null;
+    }
+
+    public LocalDate nextDue(EnergyObject energyObject) {
+        return nextDue(energyObject.getType(), energyObject.getLastMaintenanceDate(),
+                energyObject.getCommissioningYear());
+    }
+
+    public Map<String, Period> refresh() {
+        Map<String, Period> fresh = new HashMap<>();
+        for (MaintenanceInterval interval : intervalRepository.findAll()) {
+            fresh.put(interval.getType(), Period.ofMonths(interval.getIntervalMonths()));
+        }
+        intervalsByType = fresh;
+        return fresh;
+    }
+}
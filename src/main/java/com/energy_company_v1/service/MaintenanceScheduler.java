@@ -0,0 +1,400 @@
+package com.energy_company_v1.service;
+
+import com.energy_company_v1.repository.EnergyObjectRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Очередь плановых ТО в памяти: объекты упорядочены по дате следующего ТО, таймер взведен
+ * на начало ближайшей даты. Когда она наступает, все объекты с наступившей датой уходят
+ * одним MaintenanceDueEvent - без периодических запросов к таблице.
+ * Очередь строится из БД при старте и после импорта, дальше обновляется событиями
+ * EnergyObjectChangedEvent (поле nextMaintenanceDue уже вычислено сервисом).
+ * <p>
+ * Дата последнего срабатывания хранится в maintenance_announcements (миграция V6): при
+ * перестроении очереди даты не позже нее не объявляются повторно, кроме дат, которые
+ * с прошлого построения изменились (объект добавлен импортом, дата пересчитана).
+ */
+@Component
+public class MaintenanceScheduler {
+    private static final Logger log = LoggerFactory.getLogger(MaintenanceScheduler.class);
+    private static final int BACKFILL_BATCH_SIZE = 5000;
+    private static final String BACKFILL_SELECT = "SELECT id, type, last_maintenance_date, commissioning_year, " +
+            "next_maintenance_due FROM energy_objects WHERE id > ? ORDER BY id LIMIT " + BACKFILL_BATCH_SIZE;
+    private static final String BACKFILL_UPDATE = "UPDATE energy_objects SET next_maintenance_due = ?, " +
+            "change_version = " + EnergyObjectRepository.NEXT_CHANGE_VERSION + ", updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = ?";
+    private static final String ANNOUNCED_SELECT = "SELECT announced_through FROM maintenance_announcements WHERE id = 1";
+    private static final String ANNOUNCED_UPDATE = "UPDATE maintenance_announcements SET announced_through = ? " +
+            "WHERE id = 1";
+
+    private final EnergyObjectRepository energyObjectRepository;
+    private final MaintenanceIntervals maintenanceIntervals;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EnergyObjectCacheEvictor cacheEvictor;
+    private final TaskScheduler taskScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter dueCounter;
+    // Границы дат ТО - полночь по часовому поясу часов
+    private final Clock clock;
+    private final ZoneId zone;
+
+    // Построения очереди выполняются по одному: буфер изменений ниже - общий
+    private final ReentrantLock loadLock = new ReentrantLock();
+    // Все поля ниже - под lock. ReentrantLock, а не synchronized: см. FleetStatisticsCache
+    private final ReentrantLock lock = new ReentrantLock();
+    // Текущая дата ТО каждого объекта (и уже объявленные, чтобы не объявлять повторно)
+    private Map<Long, LocalDate> dueById = new HashMap<>();
+    // Изменения, пришедшие, пока load() читает БД; null - построение не идет
+    private List<Change> pendingChanges;
+    private boolean loaded;
+    // Даты по эту включительно уже объявлены; null - объявлений не было
+    private LocalDate announcedThrough;
+    // Еще не объявленные даты; устаревшие записи (дата объекта с тех пор изменилась)
+    // не удаляются из кучи, а пропускаются при извлечении
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(
+            Comparator.comparing(Entry::dueDate).thenComparing(Entry::objectId));
+    private ScheduledFuture<?> timer;
+    private LocalDate timerDate;
+
+    public MaintenanceScheduler(EnergyObjectRepository energyObjectRepository,
+                                MaintenanceIntervals maintenanceIntervals,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                EnergyObjectCacheEvictor cacheEvictor,
+                                TaskScheduler taskScheduler,
+                                ApplicationEventPublisher eventPublisher,
+                                MeterRegistry meterRegistry,
+                                Clock clock) {
+        this.energyObjectRepository = energyObjectRepository;
+        this.maintenanceIntervals = maintenanceIntervals;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheEvictor = cacheEvictor;
+        this.taskScheduler = taskScheduler;
+        this.eventPublisher = eventPublisher;
+        this.dueCounter = Counter.builder("energy.maintenance.due")
+                .description("Объявленные плановые ТО энергообъектов")
+                .register(meterRegistry);
+        this.clock = clock;
+        this.zone = clock.getZone();
+    }
+
+    // В фоне, чтобы заполнение дат на большой таблице не задерживало готовность приложения
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true, condition = "!#event.bulk")
+    public void onEnergyObjectChanged(EnergyObjectChangedEvent event) {
+        if (event.isDeleted()) {
+            schedule(event.getId(), null);
+        } else {
+            schedule(event.getId(), (LocalDate) event.getObject().get("nextMaintenanceDue"));
+        }
+    }
+
+    // После импорта - полный проход по таблице: в фоне, а не в потоке запроса загрузки
+    @Async
+    @TransactionalEventListener(fallbackExecution = true, condition = "#event.bulk")
+    public void onBulkChange(EnergyObjectChangedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Заполнить недостающие даты ТО в БД и заново построить очередь
+     */
+    public void rebuild() {
+        int updated = recompute(false);
+        if (updated > 0) {
+            log.info("Дата следующего ТО заполнена для {} энергообъектов", updated);
+        }
+        load();
+    }
+
+    /**
+     * Пересчитать даты ТО всех объектов по текущему справочнику интервалов
+     * (после правки maintenance_intervals) и заново построить очередь
+     */
+    public int recomputeAll() {
+        maintenanceIntervals.refresh();
+        int updated = recompute(true);
+        log.info("Дата следующего ТО пересчитана, изменилась у {} энергообъектов", updated);
+        load();
+        return updated;
+    }
+
+    // Проход по таблице пачками по id; пишутся только изменившиеся даты
+    private int recompute(boolean all) {
+        int updated = 0;
+        long lastId = 0;
+        while (true) {
+            List<Object[]> changes = new ArrayList<>();
+            long[] last = {lastId};
+            int rows = jdbcTemplate.query(BACKFILL_SELECT, rs -> {
+                int count = 0;
+                while (rs.next()) {
+                    count++;
+                    long id = rs.getLong(1);
+                    last[0] = id;
+                    Date lastMaintenance = rs.getDate(3);
+                    Date current = rs.getDate(5);
+                    if (current != null && !all) {
+                        continue;
+                    }
+                    LocalDate due = maintenanceIntervals.nextDue(rs.getString(2),
+                            lastMaintenance != null ? lastMaintenance.toLocalDate() : null, rs.getInt(4));
+                    if (!Objects.equals(due, current != null ? current.toLocalDate() : null)) {
+                        changes.add(new Object[]{due != null ? Date.valueOf(due) : null, id});
+                    }
+                }
+                return count;
+            }, lastId);
+            if (!changes.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.queryForObject(EnergyObjectRepository.LOCK_CHANGE_VERSIONS, Integer.class);
+                    jdbcTemplate.batchUpdate(BACKFILL_UPDATE, changes);
+                });
+                updated += changes.size();
+            }
+            if (rows < BACKFILL_BATCH_SIZE) {
+                break;
+            }
+            lastId = last[0];
+        }
+        if (updated > 0) {
+            cacheEvictor.evictAll();
+        }
+        return updated;
+    }
+
+    /**
+     * Чтение дат из БД идет вне lock; изменения, пришедшие за это время, копятся в
+     * pendingChanges и накладываются на прочитанное, чтобы построение их не затерло.
+     * В очередь попадают еще не объявленные даты и изменившиеся с прошлого построения.
+     */
+    private void load() {
+        loadLock.lock();
+        try {
+            lock.lock();
+            try {
+                pendingChanges = new ArrayList<>();
+            } finally {
+                lock.unlock();
+            }
+
+            List<Object[]> schedule;
+            LocalDate persistedAnnouncedThrough;
+            try {
+                schedule = energyObjectRepository.findMaintenanceSchedule();
+                persistedAnnouncedThrough = jdbcTemplate.queryForObject(ANNOUNCED_SELECT, LocalDate.class);
+            } catch (RuntimeException e) {
+                lock.lock();
+                try {
+                    pendingChanges = null;
+                } finally {
+                    lock.unlock();
+                }
+                throw e;
+            }
+
+            Map<Long, LocalDate> loadedDue = new HashMap<>(schedule.size() * 4 / 3 + 1);
+            for (Object[] row : schedule) {
+                loadedDue.put((Long) row[0], (LocalDate) row[1]);
+            }
+
+            lock.lock();
+            try {
+                // Изменения за время чтения снова ставятся в очередь: их запись в старой очереди выбрасывается
+                Set<Long> changedDuringLoad = new HashSet<>();
+                for (Change change : pendingChanges) {
+                    changedDuringLoad.add(change.objectId());
+                    if (change.dueDate() == null) {
+                        loadedDue.remove(change.objectId());
+                    } else {
+                        loadedDue.put(change.objectId(), change.dueDate());
+                    }
+                }
+                pendingChanges = null;
+                if (announcedThrough == null || (persistedAnnouncedThrough != null
+                        && persistedAnnouncedThrough.isAfter(announcedThrough))) {
+                    announcedThrough = persistedAnnouncedThrough;
+                }
+
+                Map<Long, LocalDate> previous = dueById;
+                queue.clear();
+                loadedDue.forEach((id, due) -> {
+                    boolean unannounced = announcedThrough == null || due.isAfter(announcedThrough);
+                    boolean changed = loaded && !due.equals(previous.get(id));
+                    if (unannounced || changed || changedDuringLoad.contains(id)) {
+                        queue.add(new Entry(id, due));
+                    }
+                });
+                dueById = loadedDue;
+                loaded = true;
+                armTimer();
+            } finally {
+                lock.unlock();
+            }
+            log.debug("Очередь плановых ТО построена: {} энергообъектов", schedule.size());
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Новая дата ТО объекта; null - объект удален или дату не от чего отсчитывать
+     */
+    public void schedule(Long objectId, LocalDate dueDate) {
+        lock.lock();
+        try {
+            if (pendingChanges != null && !Objects.equals(dueDate, dueById.get(objectId))) {
+                pendingChanges.add(new Change(objectId, dueDate));
+            }
+            if (dueDate == null) {
+                dueById.remove(objectId);
+                return;
+            }
+            if (dueDate.equals(dueById.put(objectId, dueDate))) {
+                return;
+            }
+            queue.add(new Entry(objectId, dueDate));
+            if (timerDate == null || dueDate.isBefore(timerDate)) {
+                armTimer();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Срабатывание таймера: извлечь все наступившие даты и взвести таймер на следующую
+    private void fire() {
+        LocalDate today = LocalDate.now(clock);
+        List<MaintenanceDueEvent.Due> due = new ArrayList<>();
+        lock.lock();
+        try {
+            timer = null;
+            timerDate = null;
+            while (!queue.isEmpty() && !queue.peek().dueDate().isAfter(today)) {
+                Entry entry = queue.poll();
+                if (entry.dueDate().equals(dueById.get(entry.objectId()))) {
+                    due.add(new MaintenanceDueEvent.Due(entry.objectId(), entry.dueDate()));
+                }
+            }
+            // Устаревших записей накопилось больше, чем актуальных, - куча пересобирается
+            if (queue.size() > 2 * dueById.size() + BACKFILL_BATCH_SIZE) {
+                queue.clear();
+                dueById.forEach((id, date) -> {
+                    if (date.isAfter(today)) {
+                        queue.add(new Entry(id, date));
+                    }
+                });
+            }
+            announcedThrough = today;
+            armTimer();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            jdbcTemplate.update(ANNOUNCED_UPDATE, Date.valueOf(today));
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сохранить дату объявления плановых ТО; после перезапуска они будут объявлены повторно", e);
+        }
+        if (!due.isEmpty()) {
+            MaintenanceDueEvent event = new MaintenanceDueEvent(today, due);
+            log.info("Плановое ТО: наступило у {} энергообъектов, из них просрочено {}",
+                    due.size(), event.getOverdueCount());
+            dueCounter.increment(due.size());
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    // Вызывается под lock
+    private void armTimer() {
+        while (!queue.isEmpty() && !queue.peek().dueDate().equals(dueById.get(queue.peek().objectId()))) {
+            queue.poll();
+        }
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+            timerDate = null;
+        }
+        if (queue.isEmpty()) {
+            return;
+        }
+        LocalDate next = queue.peek().dueDate();
+        Instant at = next.atStartOfDay(zone).toInstant();
+        Instant now = clock.instant();
+        timer = taskScheduler.schedule(this::fire, at.isBefore(now) ? now : at);
+        timerDate = next;
+    }
+
+    private static final class Change {
+        private final Long objectId;
+        private final LocalDate dueDate;
+
+        private Change(Long objectId, LocalDate dueDate) {
+            this.objectId = objectId;
+            this.dueDate = dueDate;
+        }
+
+        private Long objectId() {
+            return objectId;
+        }
+
+        private LocalDate dueDate() {
+            return dueDate;
+        }
+    }
+
+    private static final class Entry {
+        private final Long objectId;
+        private final LocalDate dueDate;
+
+        private Entry(Long objectId, LocalDate dueDate) {
+            this.objectId = objectId;
+            this.dueDate = dueDate;
+        }
+
+        private Long objectId() {
+            return objectId;
+        }
+
+        private LocalDate dueDate() {
+            return dueDate;
+        }
+    }
+}
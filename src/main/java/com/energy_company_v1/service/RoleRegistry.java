@@ -0,0 +1,76 @@
+package com.energy_company_v1.service;
+
+import com.energy_company_v1.model.ERole;
+import com.energy_company_v1.model.Role;
+import com.energy_company_v1.repository.RoleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Справочник ролей: все роли загружаются одним запросом и хранятся в неизменяемом EnumMap.
+ * Перезагружается только явно (refresh) - при создании ролей или по действию администратора.
+ */
+@Component
+public class RoleRegistry {
+    private static final Logger log = LoggerFactory.getLogger(RoleRegistry.class);
+
+    private final RoleRepository roleRepository;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Map<ERole, Role> roles;
+
+    public RoleRegistry(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    public Role get(ERole name) {
+        Map<ERole, Role> current = roles;
+        if (current == null) {
+            current = refresh();
+        }
+        Role role = current.get(name);
+        if (role == null) {
+            throw new RuntimeException("Роль " + name + " не найдена");
+        }
+        return role;
+    }
+
+    /**
+     * Роль по строковому имени из форм администратора: admin, mod/moderator, остальное - user.
+     * Только для действий администратора; самостоятельная регистрация роли не выбирает
+     */
+    public Role resolve(String name) {
+        switch (name.toLowerCase()) {
+            case "admin":
+                return get(ERole.ROLE_ADMIN);
+            case "mod":
+            case "moderator":
+                return get(ERole.ROLE_MODERATOR);
+            default:
+                return get(ERole.ROLE_USER);
+        }
+    }
+
+    public Map<ERole, Role> refresh() {
+        // Не synchronized: запрос к БД под монитором закрепляет виртуальный поток
+        refreshLock.lock();
+        try {
+            Map<ERole, Role> loaded = new EnumMap<>(ERole.class);
+            for (Role role : roleRepository.findAll()) {
+                loaded.put(role.getName(), role);
+            }
+            roles = Collections.unmodifiableMap(loaded);
+            log.info("Справочник ролей загружен: {}", loaded.keySet());
+            return roles;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+}
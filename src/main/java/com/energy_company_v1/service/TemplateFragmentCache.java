@@ -0,0 +1,109 @@
+package com.energy_company_v1.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Кэш отрендеренных неизменяемых фрагментов шаблонов (навигация, футер).
+ * Шаблон вставляет готовый HTML через th:utext="${@templateFragmentCache.renderForUser('шаблон :: фрагмент')}".
+ * Когда кэш шаблонов выключен (spring.thymeleaf.cache=false, разработка), фрагменты
+ * рендерятся при каждом запросе, чтобы правки шаблонов были видны сразу.
+ */
+@Component
+public class TemplateFragmentCache {
+    private static final String SELECTOR_SEPARATOR = " :: ";
+
+    private final ITemplateEngine templateEngine;
+    private final boolean enabled;
+    private final Cache<String, String> fragments;
+
+    private volatile JakartaServletWebApplication webApplication;
+
+    public TemplateFragmentCache(ITemplateEngine templateEngine,
+                                 @Value("${spring.thymeleaf.cache:true}") boolean enabled,
+                                 @Value("${energy.view.fragment-cache.max-entries:10000}") long maxEntries) {
+        this.templateEngine = templateEngine;
+        this.enabled = enabled;
+        this.fragments = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+    }
+
+    /**
+     * Фрагмент, одинаковый для всех пользователей
+     */
+    public String renderStatic(String fragment) {
+        return render(fragment, fragment);
+    }
+
+    /**
+     * Фрагмент, зависящий от пользователя (имя в меню, sec:authorize): отдельная копия
+     * на каждое сочетание имени и ролей
+     */
+    public String renderForUser(String fragment) {
+        return render(fragment, fragment + "|" + userKey());
+    }
+
+    private String render(String fragment, String key) {
+        if (!enabled) {
+            return process(fragment);
+        }
+        return fragments.get(key, k -> process(fragment));
+    }
+
+    private String process(String fragment) {
+        int separator = fragment.indexOf(SELECTOR_SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Ожидается 'шаблон :: фрагмент': " + fragment);
+        }
+        String template = fragment.substring(0, separator);
+        String selector = fragment.substring(separator + SELECTOR_SEPARATOR.length());
+
+        // Веб-контекст нужен для ссылок @{...} относительно контекста приложения и sec:authorize
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        HttpServletRequest request = attributes.getRequest();
+        WebContext context = new WebContext(
+                webApplication(request.getServletContext()).buildExchange(request, attributes.getResponse()),
+                LocaleContextHolder.getLocale());
+        return templateEngine.process(template, Set.of(selector), context);
+    }
+
+    private JakartaServletWebApplication webApplication(ServletContext servletContext) {
+        JakartaServletWebApplication application = webApplication;
+        if (application == null) {
+            application = JakartaServletWebApplication.buildApplication(servletContext);
+            webApplication = application;
+        }
+        return application;
+    }
+
+    private static String userKey() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return "anonymous";
+        }
+        Set<String> authorities = new TreeSet<>();
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            authorities.add(authority.getAuthority());
+        }
+        return authentication.getName() + "|" + String.join(",", authorities);
+    }
+}
@@ -1,34 +1,100 @@
 package com.energy_company_v1.service;
 
+import com.energy_company_v1.config.CacheConfig;
 import com.energy_company_v1.model.User;
 import com.energy_company_v1.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+    private static final Logger log = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
 
     private final UserRepository userRepository;
+    private final Cache userDetailsCache;
+    private final Cache usersCache;
+    // Транзакция только на чтение пользователя из БД: попадание в кэш соединение не занимает
+    private final TransactionTemplate loadTransaction;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserRepository userRepository, CacheManager cacheManager,
+                                  PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setReadOnly(true);
+        this.userDetailsCache = cacheManager.getCache(CacheConfig.USER_DETAILS_CACHE);
+        this.usersCache = cacheManager.getCache(CacheConfig.USERS_CACHE);
     }
 
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Пользователь не найден: " + username));
+        // В кэше хранится неизменяемый снимок, а UserDetails каждый раз создается заново:
+        // Spring Security затирает пароль в выданном объекте после успешного входа
+        PrincipalSnapshot snapshot = userDetailsCache.get(username, PrincipalSnapshot.class);
+        if (snapshot == null) {
+            snapshot = loadSnapshot(username);
+            userDetailsCache.put(username, snapshot);
+        }
+
+        return org.springframework.security.core.userdetails.User
+                .withUsername(snapshot.username)
+                .password(snapshot.password)
+                .authorities(snapshot.authorities)
+                .build();
+    }
+
+    /**
+     * Вызывается Spring Security после успешного входа, если хеш пароля устарел
+     * (другой алгоритм или меньшая стоимость BCrypt)
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        userRepository.findByUsername(userDetails.getUsername()).ifPresent(user -> {
+            user.setPassword(newPassword);
+            userRepository.save(user);
+            log.info("Хеш пароля пользователя {} обновлен", user.getUsername());
+        });
+        userDetailsCache.evict(userDetails.getUsername());
+        usersCache.evict(userDetails.getUsername());
 
         return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword())
-                .authorities(user.getRoles().stream()
-                        .map(role -> role.getName().name())
-                        .toArray(String[]::new))
+                .withUserDetails(userDetails)
+                .password(newPassword)
                 .build();
     }
-}
\ No newline at end of file
+
+    // Пользователь с ролями и снимок - в одной транзакции только на чтение
+    private PrincipalSnapshot loadSnapshot(String username) {
+        return loadTransaction.execute(status -> {
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("Пользователь не найден: " + username));
+
+            return new PrincipalSnapshot(user.getUsername(), user.getPassword(),
+                    user.getRoles().stream()
+                            .map(role -> role.getName().name())
+                            .toArray(String[]::new));
+        });
+    }
+
+    private static final class PrincipalSnapshot {
+        private final String username;
+        private final String password;
+        private final String[] authorities;
+
+        private PrincipalSnapshot(String username, String password, String[] authorities) {
+            this.username = username;
+            this.password = password;
+            this.authorities = authorities;
+        }
+    }
+}
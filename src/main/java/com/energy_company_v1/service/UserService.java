@@ -1,34 +1,52 @@
 package com.energy_company_v1.service;
 
+import com.energy_company_v1.config.CacheConfig;
+import com.energy_company_v1.dto.UserProfile;
+import com.energy_company_v1.dto.UserSummary;
 import com.energy_company_v1.model.ERole;
 import com.energy_company_v1.model.Role;
 import com.energy_company_v1.model.User;
-import com.energy_company_v1.repository.RoleRepository;
 import com.energy_company_v1.repository.UserRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 @Service
 public class UserService {
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final PasswordEncoder passwordEncoder;
+    private final CacheManager cacheManager;
 
     public UserService(UserRepository userRepository,
-                       RoleRepository roleRepository,
-                       PasswordEncoder passwordEncoder) {
+                       RoleRegistry roleRegistry,
+                       PasswordEncoder passwordEncoder,
+                       CacheManager cacheManager) {
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
+        this.roleRegistry = roleRegistry;
         this.passwordEncoder = passwordEncoder;
+        this.cacheManager = cacheManager;
     }
 
-    // Существующий метод регистрации
-    public User registerUser(String username, String email, String password, Set<String> strRoles) {
+    /**
+     * Самостоятельная регистрация: всегда только ROLE_USER, остальные роли назначает администратор
+     */
+    public User registerUser(String username, String email, String password) {
         if (userRepository.existsByUsername(username)) {
             throw new RuntimeException("Username уже занят");
         }
@@ -42,30 +60,7 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(password));
 
         Set<Role> roles = new HashSet<>();
-        if (strRoles == null || strRoles.isEmpty()) {
-            Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                    .orElseThrow(() -> new RuntimeException("Роль USER не найдена"));
-            roles.add(userRole);
-        } else {
-            strRoles.forEach(role -> {
-                switch (role) {
-                    case "admin":
-                        Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
-                                .orElseThrow(() -> new RuntimeException("Роль ADMIN не найдена"));
-                        roles.add(adminRole);
-                        break;
-                    case "mod":
-                        Role modRole = roleRepository.findByName(ERole.ROLE_MODERATOR)
-                                .orElseThrow(() -> new RuntimeException("Роль MODERATOR не найдена"));
-                        roles.add(modRole);
-                        break;
-                    default:
-                        Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                                .orElseThrow(() -> new RuntimeException("Роль USER не найдена"));
-                        roles.add(userRole);
-                }
-            });
-        }
+        roles.add(roleRegistry.get(ERole.ROLE_USER));
 
         user.setRoles(roles);
         return userRepository.save(user);
@@ -81,6 +76,16 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("Пользователь не найден: " + username));
     }
 
+    /**
+     * Данные профиля пользователя (кэшируются до изменения пользователя). В кэше - неизменяемый
+     * снимок, а не сущность: она изменяема и привязана к сессии Hibernate
+     */
+    @Cacheable(cacheNames = CacheConfig.USERS_CACHE, key = "#username")
+    @Transactional(readOnly = true)
+    public UserProfile getProfile(String username) {
+        return new UserProfile(findByUsername(username));
+    }
+
     /**
      * Обновить данные пользователя
      */
@@ -101,7 +106,9 @@ public class UserService {
         existingUser.setEmail(user.getEmail());
         existingUser.setPhone(user.getPhone());
 
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        evictUserCaches(saved.getUsername());
+        return saved;
     }
 
     /**
@@ -118,6 +125,7 @@ public class UserService {
         // Обновляем пароль
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        evictUserCaches(username);
     }
 
     /**
@@ -127,6 +135,70 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    /**
+     * Страница пользователей для админ-панели (без паролей), роли - одним запросом на страницу
+     */
+    @Transactional(readOnly = true)
+    public Page<UserSummary> getUserSummaries(String search, Pageable pageable) {
+        Page<UserSummary> page = search == null || search.trim().isEmpty()
+                ? userRepository.findAllSummaries(pageable)
+                : userRepository.searchSummaries(search.trim(), pageable);
+
+        if (page.hasContent()) {
+            Map<Long, UserSummary> byId = new HashMap<>();
+            page.forEach(summary -> byId.put(summary.getId(), summary));
+            for (Object[] row : userRepository.findRoleNamesByUserIds(byId.keySet())) {
+                byId.get((Long) row[0]).getRoles().add((ERole) row[1]);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Назначить одинаковый набор ролей группе пользователей в одной транзакции
+     */
+    @Transactional
+    public int changeRolesInBulk(Collection<Long> userIds, Set<String> strRoles) {
+        if (userIds == null || userIds.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> roleNames = new HashSet<>();
+        if (strRoles == null || strRoles.isEmpty()) {
+            roleNames.add(ERole.ROLE_USER.name());
+        } else {
+            strRoles.forEach(role -> roleNames.add(roleRegistry.resolve(role).getName().name()));
+        }
+
+        List<String> usernames = userRepository.findUsernamesByIdIn(userIds);
+        userRepository.deleteRolesByUserIds(userIds);
+        userRepository.insertRolesForUserIds(userIds, roleNames);
+        evictUserCachesAfterCommit(usernames);
+        return usernames.size();
+    }
+
+    /**
+     * Удалить группу пользователей в одной транзакции (кроме текущего администратора)
+     */
+    @Transactional
+    public int deleteUsersInBulk(Collection<Long> userIds, String currentUsername) {
+        if (userIds == null || userIds.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> ids = new HashSet<>(userIds);
+        userRepository.findByUsername(currentUsername).ifPresent(current -> ids.remove(current.getId()));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<String> usernames = userRepository.findUsernamesByIdIn(ids);
+        userRepository.deleteRolesByUserIds(ids);
+        int deleted = userRepository.deleteUsersByIds(ids);
+        evictUserCachesAfterCommit(usernames);
+        return deleted;
+    }
+
     /**
      * Найти пользователя по ID
      */
@@ -139,10 +211,9 @@ public class UserService {
      * Удалить пользователя
      */
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("Пользователь не найден с ID: " + id);
-        }
+        User user = findById(id);
         userRepository.deleteById(id);
+        evictUserCaches(user.getUsername());
     }
 
     /**
@@ -152,28 +223,35 @@ public class UserService {
         User user = findById(userId);
 
         Set<Role> roles = new HashSet<>();
-        strRoles.forEach(role -> {
-            switch (role.toLowerCase()) {
-                case "admin":
-                    Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
-                            .orElseThrow(() -> new RuntimeException("Роль ADMIN не найдена"));
-                    roles.add(adminRole);
-                    break;
-                case "mod":
-                case "moderator":
-                    Role modRole = roleRepository.findByName(ERole.ROLE_MODERATOR)
-                            .orElseThrow(() -> new RuntimeException("Роль MODERATOR не найдена"));
-                    roles.add(modRole);
-                    break;
-                default:
-                    Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                            .orElseThrow(() -> new RuntimeException("Роль USER не найдена"));
-                    roles.add(userRole);
-            }
-        });
+        strRoles.forEach(role -> roles.add(roleRegistry.resolve(role)));
 
         user.setRoles(roles);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        evictUserCaches(saved.getUsername());
+        return saved;
+    }
+
+    /**
+     * Сбросить кэшированные данные пользователя после его изменения
+     */
+    private void evictUserCaches(String username) {
+        Cache userDetails = cacheManager.getCache(CacheConfig.USER_DETAILS_CACHE);
+        if (userDetails != null) {
+            userDetails.evict(username);
+        }
+        Cache users = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        if (users != null) {
+            users.evict(username);
+        }
+    }
+
+    private void evictUserCachesAfterCommit(Collection<String> usernames) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                usernames.forEach(username -> evictUserCaches(username));
+            }
+        });
     }
 
     /**
@@ -0,0 +1,38 @@
+package com.energy_company_v1.telemetry;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Побитовое чтение из буфера (обычно отображенного в память сегмента) начиная с offset,
+ * без копирования данных
+ */
+final class BitInput {
+    private final ByteBuffer buffer;
+    private final int offset;
+    private long bitPosition;
+
+    BitInput(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+    }
+
+    boolean readBit() {
+        int b = buffer.get(offset + (int) (bitPosition >>> 3)) & 0xFF;
+        boolean bit = ((b >>> (7 - (int) (bitPosition & 7))) & 1) != 0;
+        bitPosition++;
+        return bit;
+    }
+
+    long readBits(int bits) {
+        long value = 0;
+        while (bits > 0) {
+            int available = 8 - (int) (bitPosition & 7);
+            int n = Math.min(available, bits);
+            int b = buffer.get(offset + (int) (bitPosition >>> 3)) & 0xFF;
+            value = (value << n) | ((b >>> (available - n)) & ((1 << n) - 1));
+            bitPosition += n;
+            bits -= n;
+        }
+        return value;
+    }
+}
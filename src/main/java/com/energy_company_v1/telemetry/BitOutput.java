@@ -0,0 +1,44 @@
+package com.energy_company_v1.telemetry;
+
+import java.util.Arrays;
+
+/**
+ * Побитовая запись в растущий массив байт, старшие биты первыми
+ */
+final class BitOutput {
+    private byte[] buffer;
+    private long bitPosition;
+
+    BitOutput(int initialBytes) {
+        this.buffer = new byte[Math.max(initialBytes, 16)];
+    }
+
+    void writeBit(boolean bit) {
+        writeBits(bit ? 1 : 0, 1);
+    }
+
+    // Младшие bits битов value (1..64)
+    void writeBits(long value, int bits) {
+        ensureCapacity(bits);
+        while (bits > 0) {
+            int byteIndex = (int) (bitPosition >>> 3);
+            int freeInByte = 8 - (int) (bitPosition & 7);
+            int n = Math.min(freeInByte, bits);
+            int chunk = (int) ((value >>> (bits - n)) & ((1 << n) - 1));
+            buffer[byteIndex] |= (byte) (chunk << (freeInByte - n));
+            bitPosition += n;
+            bits -= n;
+        }
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, (int) ((bitPosition + 7) >>> 3));
+    }
+
+    private void ensureCapacity(int bits) {
+        int required = (int) ((bitPosition + bits + 7) >>> 3);
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+        }
+    }
+}
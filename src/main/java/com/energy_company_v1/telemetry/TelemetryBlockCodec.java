@@ -0,0 +1,127 @@
+package com.energy_company_v1.telemetry;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Сжатие блока показаний по схеме Gorilla (Facebook TSDB): метки времени - разность
+ * разностей с кодами переменной длины (равномерный шаг опроса - 1 бит на точку),
+ * значения - XOR с предыдущим, из которого пишутся только значащие биты
+ * (неизменное значение - 1 бит). Первая точка блока хранится полностью.
+ */
+final class TelemetryBlockCodec {
+
+    @FunctionalInterface
+    interface PointConsumer {
+        void accept(long timestamp, double value);
+    }
+
+    private TelemetryBlockCodec() {
+    }
+
+    static byte[] encode(long[] timestamps, double[] values, int count) {
+        BitOutput out = new BitOutput(count * 2 + 16);
+        long previousTimestamp = timestamps[0];
+        long previousDelta = 0;
+        long previousBits = Double.doubleToRawLongBits(values[0]);
+        out.writeBits(previousTimestamp, 64);
+        out.writeBits(previousBits, 64);
+
+        int previousLeading = -1;
+        int previousTrailing = 0;
+        for (int i = 1; i < count; i++) {
+            long delta = timestamps[i] - previousTimestamp;
+            writeDeltaOfDelta(out, delta - previousDelta);
+            previousTimestamp = timestamps[i];
+            previousDelta = delta;
+
+            long bits = Double.doubleToRawLongBits(values[i]);
+            long xor = bits ^ previousBits;
+            previousBits = bits;
+            if (xor == 0) {
+                out.writeBit(false);
+                continue;
+            }
+            out.writeBit(true);
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                // Значащие биты укладываются в окно предыдущего значения
+                out.writeBit(false);
+                out.writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            } else {
+                int meaningful = 64 - leading - trailing;
+                out.writeBit(true);
+                out.writeBits(leading, 5);
+                out.writeBits(meaningful - 1, 6);
+                out.writeBits(xor >>> trailing, meaningful);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    static void decode(ByteBuffer buffer, int offset, int count, PointConsumer consumer) {
+        BitInput in = new BitInput(buffer, offset);
+        long timestamp = in.readBits(64);
+        long bits = in.readBits(64);
+        consumer.accept(timestamp, Double.longBitsToDouble(bits));
+
+        long delta = 0;
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 1; i < count; i++) {
+            delta += readDeltaOfDelta(in);
+            timestamp += delta;
+            if (in.readBit()) {
+                if (in.readBit()) {
+                    leading = (int) in.readBits(5);
+                    int meaningful = (int) in.readBits(6) + 1;
+                    trailing = 64 - leading - meaningful;
+                }
+                bits ^= in.readBits(64 - leading - trailing) << trailing;
+            }
+            consumer.accept(timestamp, Double.longBitsToDouble(bits));
+        }
+    }
+
+    // 0 | 10+7 бит | 110+9 бит | 1110+12 бит | 1111+64 бита; знак - zigzag
+    private static void writeDeltaOfDelta(BitOutput out, long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            out.writeBit(false);
+            return;
+        }
+        long zigzag = (deltaOfDelta << 1) ^ (deltaOfDelta >> 63);
+        if ((zigzag >>> 7) == 0) {
+            out.writeBits(0b10, 2);
+            out.writeBits(zigzag, 7);
+        } else if ((zigzag >>> 9) == 0) {
+            out.writeBits(0b110, 3);
+            out.writeBits(zigzag, 9);
+        } else if ((zigzag >>> 12) == 0) {
+            out.writeBits(0b1110, 4);
+            out.writeBits(zigzag, 12);
+        } else {
+            out.writeBits(0b1111, 4);
+            out.writeBits(zigzag, 64);
+        }
+    }
+
+    private static long readDeltaOfDelta(BitInput in) {
+        if (!in.readBit()) {
+            return 0;
+        }
+        int bits;
+        if (!in.readBit()) {
+            bits = 7;
+        } else if (!in.readBit()) {
+            bits = 9;
+        } else if (!in.readBit()) {
+            bits = 12;
+        } else {
+            bits = 64;
+        }
+        long zigzag = in.readBits(bits);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
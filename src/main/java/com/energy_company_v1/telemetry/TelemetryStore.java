@@ -0,0 +1,668 @@
+package com.energy_company_v1.telemetry;
+
+import com.energy_company_v1.dto.TelemetryBucket;
+import com.energy_company_v1.dto.TelemetryIngestReport;
+import com.energy_company_v1.service.EnergyObjectChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Хранилище показаний выработки энергообъектов (временные ряды с шагом от секунды).
+ * <p>
+ * Ряд каждого объекта только дописывается: показания копятся в памяти (голова ряда) и
+ * блоками по energy.telemetry.block-size точек, сжатыми TelemetryBlockCodec, добавляются
+ * в файл сегмента &lt;каталог&gt;/&lt;id объекта&gt;/&lt;дата UTC&gt;.seg. Заголовок блока хранит
+ * интервал времени и min/max/сумму, поэтому блоки вне запрошенного интервала пропускаются,
+ * а целиком попавшие в один интервал прореживания не распаковываются. Сегменты читаются
+ * через отображение в память.
+ * <p>
+ * Блок запечатывается, только когда голова заполнена или наступили следующие сутки: мелкие
+ * блоки не окупали бы заголовок и первую несжатую точку. Сохранность головы обеспечивает
+ * журнал &lt;каталог&gt;/&lt;id объекта&gt;/head.wal: по расписанию (energy.telemetry.flush-interval)
+ * и при остановке новые показания дописываются в него с fsync, при запечатывании блока он
+ * удаляется, а при открытии ряда после сбоя голова восстанавливается из него. Показания,
+ * принятые после последней записи в журнал, при аварийном завершении теряются.
+ * <p>
+ * Формат сегмента: int magic, int версия, затем блоки:
+ * int длина данных, int число точек, long первая и последняя метки (мс), double min, max, сумма, данные.
+ * Формат журнала: int magic, long сутки головы, long размер сегмента этих суток на момент
+ * создания журнала, затем показания: long метка (мс), double значение. Если сегмент с тех пор
+ * вырос, голова уже запечатана и журнал устарел.
+ */
+@Component
+public class TelemetryStore implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(TelemetryStore.class);
+
+    static final int FILE_MAGIC = 0x45545331; // "ETS1"
+    static final int FORMAT_VERSION = 1;
+    static final int FILE_HEADER_BYTES = 8;
+    static final int BLOCK_HEADER_BYTES = 48;
+    static final String HEAD_LOG_FILE = "head.wal";
+    static final int HEAD_LOG_MAGIC = 0x45544c31; // "ETL1"
+    static final int HEAD_LOG_HEADER_BYTES = 20;
+    static final int HEAD_LOG_RECORD_BYTES = 16;
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final long MILLIS_PER_DAY = Duration.ofDays(1).toMillis();
+    private static final int MAX_BUCKETS = 10_000;
+
+    private final Path directory;
+    private final int blockSize;
+    private final Duration retention;
+    private final ConcurrentHashMap<Long, Series> series = new ConcurrentHashMap<>();
+    // Отображения сегментов в память; файл, выросший после отображения, отображается заново
+    private final Cache<Path, MappedByteBuffer> mappedSegments = Caffeine.newBuilder()
+            .maximumSize(1024)
+            .build();
+
+    public TelemetryStore(@Value("${energy.telemetry.directory:data/telemetry}") Path directory,
+                          @Value("${energy.telemetry.block-size:1024}") int blockSize,
+                          @Value("${energy.telemetry.retention:P90D}") Duration retention) {
+        this.directory = directory;
+        this.blockSize = blockSize;
+        this.retention = retention;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new RuntimeException("Не удалось создать каталог телеметрии " + directory, e);
+        }
+    }
+
+    /**
+     * Прием пачки показаний. Массивы упорядочиваются по времени на месте; показания старше
+     * последнего принятого для объекта и нечисловые значения отклоняются.
+     */
+    public TelemetryIngestReport ingest(long objectId, long[] timestamps, double[] values, int count) {
+        sortByTimestamp(timestamps, values, count);
+        TelemetryIngestReport report = new TelemetryIngestReport();
+        Series s = series(objectId);
+        s.lock.lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                long timestamp = timestamps[i];
+                double value = values[i];
+                if (timestamp < s.lastTimestamp || !Double.isFinite(value)) {
+                    report.pointRejected();
+                    continue;
+                }
+                // Блок не пересекает границу суток: сегмент - это сутки
+                long day = Math.floorDiv(timestamp, MILLIS_PER_DAY);
+                if (s.size > 0 && day != s.headDay) {
+                    seal(objectId, s);
+                }
+                s.append(timestamp, value, day);
+                report.pointAccepted();
+                if (s.size >= blockSize) {
+                    seal(objectId, s);
+                }
+            }
+        } finally {
+            s.lock.unlock();
+        }
+        return report;
+    }
+
+    /**
+     * Показания за [from, to), прореженные до интервалов длиной step; пустые интервалы пропускаются
+     */
+    public List<TelemetryBucket> query(long objectId, Instant from, Instant to, Duration step) {
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        long stepMillis = step.toMillis();
+        if (toMillis <= fromMillis || stepMillis <= 0) {
+            throw new IllegalArgumentException("Интервал запроса телеметрии пуст");
+        }
+        long buckets = Math.ceilDiv(toMillis - fromMillis, stepMillis);
+        if (buckets > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Слишком мелкий шаг: не более " + MAX_BUCKETS + " интервалов");
+        }
+
+        Aggregation aggregation = new Aggregation(fromMillis, toMillis, stepMillis, (int) buckets);
+        long firstDay = Math.floorDiv(fromMillis, MILLIS_PER_DAY);
+        long lastDay = Math.floorDiv(toMillis - 1, MILLIS_PER_DAY);
+        Series s = series(objectId);
+        s.lock.lock();
+        try {
+            for (Path segment : segments(objectId)) {
+                long day = segmentDay(segment);
+                if (day >= firstDay && day <= lastDay) {
+                    aggregateSegment(segment, aggregation);
+                }
+            }
+            for (int i = 0; i < s.size; i++) {
+                aggregation.add(s.timestamps[i], s.values[i]);
+            }
+        } finally {
+            s.lock.unlock();
+        }
+        return aggregation.toBuckets();
+    }
+
+    // Новые показания голов - в журналы; блоки при этом не запечатываются
+    @Scheduled(fixedDelayString = "${energy.telemetry.flush-interval:PT10S}")
+    public void flush() {
+        series.forEach((objectId, s) -> {
+            s.lock.lock();
+            try {
+                logHead(objectId, s);
+            } catch (RuntimeException e) {
+                log.warn("Телеметрия объекта {} не записана в журнал, повтор при следующем сбросе", objectId, e);
+            } finally {
+                s.lock.unlock();
+            }
+        });
+    }
+
+    @Scheduled(cron = "${energy.telemetry.retention-cron:0 15 3 * * *}")
+    public void purgeExpired() {
+        long cutoffDay = LocalDate.now(ZoneOffset.UTC).minusDays(retention.toDays()).toEpochDay();
+        int deleted = 0;
+        try (Stream<Path> objectDirectories = Files.list(directory)) {
+            for (Path objectDirectory : objectDirectories.filter(Files::isDirectory).toList()) {
+                for (Path segment : listSegments(objectDirectory)) {
+                    if (segmentDay(segment) < cutoffDay) {
+                        mappedSegments.invalidate(segment);
+                        Files.deleteIfExists(segment);
+                        deleted++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Не удалось удалить устаревшую телеметрию", e);
+        }
+        if (deleted > 0) {
+            log.info("Удалено сегментов телеметрии старше {} суток: {}", retention.toDays(), deleted);
+        }
+    }
+
+    // Ряд удаленного объекта больше не нужен
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnergyObjectChanged(EnergyObjectChangedEvent event) {
+        if (event.isDeleted()) {
+            drop(event.getId());
+        }
+    }
+
+    public void drop(long objectId) {
+        Series s = series(objectId);
+        s.lock.lock();
+        try {
+            series.remove(objectId);
+            closeHeadLog(s);
+            Path objectDirectory = objectDirectory(objectId);
+            mappedSegments.asMap().keySet().removeIf(path -> path.startsWith(objectDirectory));
+            if (Files.isDirectory(objectDirectory)) {
+                try (Stream<Path> files = Files.walk(objectDirectory)) {
+                    for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                        Files.delete(file);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Не удалось удалить телеметрию объекта " + objectId, e);
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        series.values().forEach(s -> {
+            s.lock.lock();
+            try {
+                closeHeadLog(s);
+            } finally {
+                s.lock.unlock();
+            }
+        });
+    }
+
+    private Series series(long objectId) {
+        return series.computeIfAbsent(objectId, this::openSeries);
+    }
+
+    // Последняя метка ряда на диске; недописанный при сбое хвост сегмента отрезается,
+    // незапечатанная голова восстанавливается из журнала
+    private Series openSeries(long objectId) {
+        Series s = new Series(blockSize);
+        recoverTail(objectId, s);
+        recoverHead(objectId, s);
+        return s;
+    }
+
+    private void recoverTail(long objectId, Series s) {
+        List<Path> segments = segments(objectId);
+        if (segments.isEmpty()) {
+            return;
+        }
+        Path latest = segments.get(segments.size() - 1);
+        try (FileChannel channel = FileChannel.open(latest, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long validEnd = 0;
+            if (size >= FILE_HEADER_BYTES) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                checkFileHeader(buffer, latest);
+                BlockHeader header = new BlockHeader();
+                int offset = FILE_HEADER_BYTES;
+                while (header.read(buffer, offset)) {
+                    s.lastTimestamp = header.lastTimestamp;
+                    offset = header.nextOffset();
+                }
+                validEnd = offset;
+            }
+            if (validEnd < size) {
+                log.warn("Сегмент телеметрии {} обрезан с {} до {} байт (незавершенная запись)",
+                        latest, size, validEnd);
+                channel.truncate(validEnd);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Не удалось открыть телеметрию объекта " + objectId, e);
+        }
+    }
+
+    private void recoverHead(long objectId, Series s) {
+        Path headLog = objectDirectory(objectId).resolve(HEAD_LOG_FILE);
+        if (!Files.exists(headLog)) {
+            return;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(headLog));
+            if (buffer.remaining() >= HEAD_LOG_HEADER_BYTES && buffer.getInt() == HEAD_LOG_MAGIC) {
+                long day = buffer.getLong();
+                long segmentSize = buffer.getLong();
+                if (segmentSize(segment(objectId, day)) == segmentSize) {
+                    // Недописанная при сбое последняя запись отбрасывается
+                    while (buffer.remaining() >= HEAD_LOG_RECORD_BYTES) {
+                        long timestamp = buffer.getLong();
+                        double value = buffer.getDouble();
+                        if (timestamp >= s.lastTimestamp) {
+                            s.append(timestamp, value, day);
+                        }
+                    }
+                }
+            }
+            if (s.size > 0) {
+                log.info("Телеметрия объекта {}: из журнала восстановлено показаний: {}", objectId, s.size);
+            } else {
+                Files.delete(headLog);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Не удалось прочитать журнал телеметрии объекта " + objectId, e);
+        }
+    }
+
+    /**
+     * Дописывает в журнал показания головы, еще не попавшие в него, и ждет их записи на диск.
+     * Журнал создается заново для каждой головы; после ошибки записи он пересоздается
+     * целиком при следующем сбросе.
+     */
+    private void logHead(long objectId, Series s) {
+        if (s.headLog != null && s.loggedPoints == s.size) {
+            return;
+        }
+        if (s.headLog == null && s.size == 0) {
+            return;
+        }
+        try {
+            if (s.headLog == null) {
+                Path headLog = objectDirectory(objectId).resolve(HEAD_LOG_FILE);
+                Files.createDirectories(headLog.getParent());
+                ByteBuffer header = ByteBuffer.allocate(HEAD_LOG_HEADER_BYTES)
+                        .putInt(HEAD_LOG_MAGIC)
+                        .putLong(s.headDay)
+                        .putLong(segmentSize(segment(objectId, s.headDay)))
+                        .flip();
+                s.headLog = FileChannel.open(headLog, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+                s.loggedPoints = 0;
+                writeFully(s.headLog, header);
+            }
+            ByteBuffer records = ByteBuffer.allocate((s.size - s.loggedPoints) * HEAD_LOG_RECORD_BYTES);
+            for (int i = s.loggedPoints; i < s.size; i++) {
+                records.putLong(s.timestamps[i]).putDouble(s.values[i]);
+            }
+            writeFully(s.headLog, records.flip());
+            s.headLog.force(false);
+            s.loggedPoints = s.size;
+        } catch (IOException e) {
+            closeHeadLog(s);
+            throw new RuntimeException("Не удалось записать журнал телеметрии объекта " + objectId, e);
+        }
+    }
+
+    private static void closeHeadLog(Series s) {
+        if (s.headLog == null) {
+            return;
+        }
+        try {
+            s.headLog.close();
+        } catch (IOException e) {
+            log.warn("Не удалось закрыть журнал телеметрии", e);
+        }
+        s.headLog = null;
+        s.loggedPoints = 0;
+    }
+
+    private void seal(long objectId, Series s) {
+        int count = s.size;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            double value = s.values[i];
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+        }
+        byte[] payload = TelemetryBlockCodec.encode(s.timestamps, s.values, count);
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_HEADER_BYTES + payload.length)
+                .putInt(payload.length)
+                .putInt(count)
+                .putLong(s.timestamps[0])
+                .putLong(s.timestamps[count - 1])
+                .putDouble(min)
+                .putDouble(max)
+                .putDouble(sum)
+                .put(payload)
+                .flip();
+
+        Path segment = segment(objectId, s.headDay);
+        try {
+            Files.createDirectories(segment.getParent());
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE)) {
+                long sealedEnd = channel.size();
+                try {
+                    channel.position(sealedEnd);
+                    if (sealedEnd == 0) {
+                        ByteBuffer fileHeader = ByteBuffer.allocate(FILE_HEADER_BYTES)
+                                .putInt(FILE_MAGIC)
+                                .putInt(FORMAT_VERSION)
+                                .flip();
+                        writeFully(channel, fileHeader);
+                    }
+                    writeFully(channel, block);
+                    channel.force(false);
+                } catch (IOException e) {
+                    // Следующий блок не должен лечь за недописанным: при открытии он отрезался бы вместе с ним
+                    channel.truncate(sealedEnd);
+                    throw e;
+                }
+            }
+            // Блок на диске - журнал головы больше не нужен
+            closeHeadLog(s);
+            Files.deleteIfExists(objectDirectory(objectId).resolve(HEAD_LOG_FILE));
+        } catch (IOException e) {
+            throw new RuntimeException("Не удалось записать блок телеметрии объекта " + objectId, e);
+        }
+        s.size = 0;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void aggregateSegment(Path segment, Aggregation aggregation) {
+        ByteBuffer buffer;
+        try {
+            buffer = map(segment);
+        } catch (IOException e) {
+            throw new RuntimeException("Не удалось прочитать сегмент телеметрии " + segment, e);
+        }
+        if (buffer.capacity() < FILE_HEADER_BYTES) {
+            return;
+        }
+        checkFileHeader(buffer, segment);
+        BlockHeader header = new BlockHeader();
+        int offset = FILE_HEADER_BYTES;
+        while (header.read(buffer, offset)) {
+            offset = header.nextOffset();
+            if (header.lastTimestamp < aggregation.from || header.firstTimestamp >= aggregation.to) {
+                continue;
+            }
+            if (header.firstTimestamp >= aggregation.from && header.lastTimestamp < aggregation.to
+                    && aggregation.bucket(header.firstTimestamp) == aggregation.bucket(header.lastTimestamp)) {
+                aggregation.addBlock(header);
+            } else {
+                TelemetryBlockCodec.decode(buffer, header.payloadOffset, header.count, aggregation::add);
+            }
+        }
+    }
+
+    private MappedByteBuffer map(Path segment) throws IOException {
+        long size = Files.size(segment);
+        MappedByteBuffer mapped = mappedSegments.getIfPresent(segment);
+        if (mapped == null || mapped.capacity() != size) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            mappedSegments.put(segment, mapped);
+        }
+        return mapped;
+    }
+
+    private Path objectDirectory(long objectId) {
+        return directory.resolve(Long.toString(objectId));
+    }
+
+    private Path segment(long objectId, long day) {
+        return objectDirectory(objectId).resolve(LocalDate.ofEpochDay(day) + SEGMENT_SUFFIX);
+    }
+
+    private static long segmentSize(Path segment) throws IOException {
+        return Files.exists(segment) ? Files.size(segment) : 0;
+    }
+
+    // Сегменты объекта по возрастанию даты
+    private List<Path> segments(long objectId) {
+        Path objectDirectory = objectDirectory(objectId);
+        if (!Files.isDirectory(objectDirectory)) {
+            return List.of();
+        }
+        try {
+            return listSegments(objectDirectory);
+        } catch (IOException e) {
+            throw new RuntimeException("Не удалось прочитать каталог телеметрии " + objectDirectory, e);
+        }
+    }
+
+    private static List<Path> listSegments(Path objectDirectory) throws IOException {
+        try (Stream<Path> files = Files.list(objectDirectory)) {
+            return files.filter(file -> segmentDay(file) != Long.MIN_VALUE)
+                    .sorted(Comparator.comparingLong(TelemetryStore::segmentDay))
+                    .toList();
+        }
+    }
+
+    private static long segmentDay(Path segment) {
+        String name = segment.getFileName().toString();
+        if (!name.endsWith(SEGMENT_SUFFIX)) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            return LocalDate.parse(name.substring(0, name.length() - SEGMENT_SUFFIX.length())).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private static void checkFileHeader(ByteBuffer buffer, Path segment) {
+        if (buffer.getInt(0) != FILE_MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new RuntimeException("Файл " + segment + " не является сегментом телеметрии версии "
+                    + FORMAT_VERSION);
+        }
+    }
+
+    private static void sortByTimestamp(long[] timestamps, double[] values, int count) {
+        boolean sorted = true;
+        for (int i = 1; i < count && sorted; i++) {
+            sorted = timestamps[i] >= timestamps[i - 1];
+        }
+        if (sorted) {
+            return;
+        }
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> timestamps[i]));
+        long[] sortedTimestamps = new long[count];
+        double[] sortedValues = new double[count];
+        for (int i = 0; i < count; i++) {
+            sortedTimestamps[i] = timestamps[order[i]];
+            sortedValues[i] = values[order[i]];
+        }
+        System.arraycopy(sortedTimestamps, 0, timestamps, 0, count);
+        System.arraycopy(sortedValues, 0, values, 0, count);
+    }
+
+    // Голова ряда: принятые, но еще не запечатанные в блок показания
+    private static final class Series {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] timestamps;
+        private double[] values;
+        private int size;
+        private long headDay;
+        private long lastTimestamp = Long.MIN_VALUE;
+        // Открытый журнал головы и число показаний, уже записанных в него
+        private FileChannel headLog;
+        private int loggedPoints;
+
+        private Series(int capacity) {
+            this.timestamps = new long[capacity];
+            this.values = new double[capacity];
+        }
+
+        private void append(long timestamp, double value, long day) {
+            // Голова растет, только если запись на диск не удалась и показания копятся до повтора
+            if (size == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            timestamps[size] = timestamp;
+            values[size] = value;
+            size++;
+            headDay = day;
+            lastTimestamp = timestamp;
+        }
+    }
+
+    private static final class BlockHeader {
+        private int payloadLength;
+        private int count;
+        private long firstTimestamp;
+        private long lastTimestamp;
+        private double min;
+        private double max;
+        private double sum;
+        private int payloadOffset;
+
+        // false - блоков больше нет или блок записан не полностью
+        private boolean read(ByteBuffer buffer, int offset) {
+            if (offset + BLOCK_HEADER_BYTES > buffer.capacity()) {
+                return false;
+            }
+            payloadLength = buffer.getInt(offset);
+            count = buffer.getInt(offset + 4);
+            payloadOffset = offset + BLOCK_HEADER_BYTES;
+            if (payloadLength <= 0 || count <= 0 || (long) payloadOffset + payloadLength > buffer.capacity()) {
+                return false;
+            }
+            firstTimestamp = buffer.getLong(offset + 8);
+            lastTimestamp = buffer.getLong(offset + 16);
+            min = buffer.getDouble(offset + 24);
+            max = buffer.getDouble(offset + 32);
+            sum = buffer.getDouble(offset + 40);
+            return true;
+        }
+
+        private int nextOffset() {
+            return payloadOffset + payloadLength;
+        }
+    }
+
+    private static final class Aggregation {
+        private final long from;
+        private final long to;
+        private final long step;
+        private final long[] counts;
+        private final double[] mins;
+        private final double[] maxs;
+        private final double[] sums;
+
+        private Aggregation(long from, long to, long step, int buckets) {
+            this.from = from;
+            this.to = to;
+            this.step = step;
+            this.counts = new long[buckets];
+            this.mins = new double[buckets];
+            this.maxs = new double[buckets];
+            this.sums = new double[buckets];
+            Arrays.fill(mins, Double.POSITIVE_INFINITY);
+            Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+        }
+
+        private int bucket(long timestamp) {
+            return (int) ((timestamp - from) / step);
+        }
+
+        private void add(long timestamp, double value) {
+            if (timestamp < from || timestamp >= to) {
+                return;
+            }
+            int i = bucket(timestamp);
+            counts[i]++;
+            mins[i] = Math.min(mins[i], value);
+            maxs[i] = Math.max(maxs[i], value);
+            sums[i] += value;
+        }
+
+        private void addBlock(BlockHeader header) {
+            int i = bucket(header.firstTimestamp);
+            counts[i] += header.count;
+            mins[i] = Math.min(mins[i], header.min);
+            maxs[i] = Math.max(maxs[i], header.max);
+            sums[i] += header.sum;
+        }
+
+        private List<TelemetryBucket> toBuckets() {
+            List<TelemetryBucket> result = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    result.add(new TelemetryBucket(Instant.ofEpochMilli(from + i * step), counts[i],
+                            mins[i], maxs[i], sums[i] / counts[i]));
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+-- Исходная схема (ранее создавалась Hibernate ddl-auto=update) - ровно та, что есть в БД
+-- предыдущего выпуска. На существующей БД не выполняется: Flyway ставит базовую версию 1
+-- (baseline-on-migrate), поэтому все последующие изменения схемы - только в V2 и дальше.
+
+CREATE TABLE roles (
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(20) CHECK (name IN ('ROLE_USER', 'ROLE_MODERATOR', 'ROLE_ADMIN'))
+);
+
+CREATE TABLE users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username   VARCHAR(50)  NOT NULL,
+    email      VARCHAR(100) NOT NULL,
+    password   VARCHAR(120) NOT NULL,
+    first_name VARCHAR(50),
+    last_name  VARCHAR(50),
+    phone      VARCHAR(20),
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    role_id BIGINT NOT NULL REFERENCES roles (id),
+    PRIMARY KEY (user_id, role_id)
+);
+
+CREATE TABLE energy_objects (
+    id                    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name                  VARCHAR(100)     NOT NULL,
+    type                  VARCHAR(50)      NOT NULL,
+    location              VARCHAR(100)     NOT NULL,
+    power                 DOUBLE PRECISION NOT NULL,
+    commissioning_year    INTEGER          NOT NULL,
+    efficiency            DOUBLE PRECISION NOT NULL,
+    active                BOOLEAN          NOT NULL,
+    last_maintenance_date DATE,
+    description           VARCHAR(500)
+);
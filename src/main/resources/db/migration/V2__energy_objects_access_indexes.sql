@@ -0,0 +1,43 @@
+-- Лента изменений и индексы под запросы приложения. IF NOT EXISTS - часть объектов на
+-- существующих БД уже создана Hibernate (ddl-auto=update, @Index) или прежним FullTextSearchInitializer.
+
+-- Номера изменений: лента изменений, ETag API; общая последовательность для объектов и надгробий.
+-- IF NOT EXISTS - на БД, где колонки и таблицу уже добавил Hibernate ddl-auto=update
+ALTER TABLE energy_objects ADD COLUMN IF NOT EXISTS change_version BIGINT;
+ALTER TABLE energy_objects ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6);
+
+CREATE TABLE IF NOT EXISTS energy_object_tombstones (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    object_id      BIGINT       NOT NULL,
+    change_version BIGINT       NOT NULL,
+    deleted_at     TIMESTAMP(6) NOT NULL
+);
+
+CREATE SEQUENCE IF NOT EXISTS energy_objects_change_seq;
+CREATE INDEX IF NOT EXISTS idx_energy_objects_change_version ON energy_objects (change_version);
+CREATE INDEX IF NOT EXISTS idx_energy_object_tombstones_change_version ON energy_object_tombstones (change_version);
+
+-- findByType, фильтр type в API, GROUP BY type
+CREATE INDEX IF NOT EXISTS idx_energy_objects_type ON energy_objects (type);
+
+-- findByActiveTrue, findTotalActivePower (SUM(power) WHERE active - только по индексу)
+CREATE INDEX IF NOT EXISTS idx_energy_objects_active_power ON energy_objects (active, power);
+
+-- Сортировки списка; id - второй ключ для стабильного порядка и курсорной навигации
+CREATE INDEX IF NOT EXISTS idx_energy_objects_name_id ON energy_objects (name, id);
+CREATE INDEX IF NOT EXISTS idx_energy_objects_power_id ON energy_objects (power, id);
+CREATE INDEX IF NOT EXISTS idx_energy_objects_commissioning_year_id ON energy_objects (commissioning_year, id);
+CREATE INDEX IF NOT EXISTS idx_energy_objects_efficiency_id ON energy_objects (efficiency, id);
+
+-- Полнотекстовый поиск; выражение совпадает с EnergyObjectRepository.FULL_TEXT_DOCUMENT
+CREATE INDEX IF NOT EXISTS idx_energy_objects_fts ON energy_objects USING GIN (
+    to_tsvector('russian', coalesce(name, '') || ' ' || coalesce(location, '') || ' ' ||
+                           coalesce(type, '') || ' ' || coalesce(description, ''))
+);
+
+-- existsByUsername / existsByEmail / findByUsername; заодно гарантия уникальности на уровне БД
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_username ON users (username);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email ON users (email);
+
+-- Массовые операции над ролями (поиск пользователей по роли)
+CREATE INDEX IF NOT EXISTS idx_user_roles_role_id ON user_roles (role_id);
@@ -0,0 +1,24 @@
+-- Плановое обслуживание: межремонтный интервал по типу объекта и дата следующего ТО.
+-- Дату следующего ТО вычисляет приложение (MaintenanceIntervals) при каждой записи через
+-- EnergyObjectService и при импорте; существующие строки заполняет MaintenanceScheduler при старте.
+
+CREATE TABLE IF NOT EXISTS maintenance_intervals (
+    type            VARCHAR(50) PRIMARY KEY,
+    interval_months INTEGER     NOT NULL CHECK (interval_months > 0)
+);
+
+INSERT INTO maintenance_intervals (type, interval_months) VALUES
+    ('АЭС', 12),
+    ('ГЭС', 24),
+    ('ТЭС', 12),
+    ('ТЭЦ', 12),
+    ('ГРЭС', 12),
+    ('СЭС', 6),
+    ('ВЭС', 6)
+ON CONFLICT (type) DO NOTHING;
+
+ALTER TABLE energy_objects ADD COLUMN IF NOT EXISTS next_maintenance_due DATE;
+
+-- Список "сначала просроченные" (ORDER BY next_maintenance_due, id LIMIT n) и число просроченных
+CREATE INDEX IF NOT EXISTS idx_energy_objects_next_maintenance_due_id
+    ON energy_objects (next_maintenance_due, id);
@@ -0,0 +1,11 @@
+-- Координаты энергообъектов (WGS 84, градусы) для карты. Пространственный индекс держит
+-- приложение в памяти (FleetSpatialIndex), поэтому PostGIS не требуется.
+
+ALTER TABLE energy_objects ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE energy_objects ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+
+-- Координаты задаются только парой и в допустимых пределах
+ALTER TABLE energy_objects ADD CONSTRAINT chk_energy_objects_coordinates CHECK (
+    (latitude IS NULL AND longitude IS NULL)
+    OR (latitude BETWEEN -90 AND 90 AND longitude BETWEEN -180 AND 180)
+);
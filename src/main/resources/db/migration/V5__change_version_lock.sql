@@ -0,0 +1,10 @@
+-- Номера изменений выдаются под блокировкой этой строки (SELECT ... FOR UPDATE), которая
+-- держится до конца транзакции: транзакция с большим номером фиксируется позже, поэтому
+-- лента изменений и ETag (MAX(change_version)) не пропускают изменения, зафиксированные
+-- не в порядке номеров.
+
+CREATE TABLE IF NOT EXISTS energy_objects_change_lock (
+    id SMALLINT PRIMARY KEY
+);
+
+INSERT INTO energy_objects_change_lock (id) VALUES (1) ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,10 @@
+-- Дата, по которую включительно MaintenanceScheduler уже объявил наступившие ТО. При
+-- перестроении очереди (перезапуск, импорт, пересчет) более ранние даты повторно не
+-- объявляются; NULL - объявлений еще не было.
+
+CREATE TABLE IF NOT EXISTS maintenance_announcements (
+    id SMALLINT PRIMARY KEY,
+    announced_through DATE
+);
+
+INSERT INTO maintenance_announcements (id) VALUES (1) ON CONFLICT (id) DO NOTHING;
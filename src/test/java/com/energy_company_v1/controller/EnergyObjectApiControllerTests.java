@@ -0,0 +1,200 @@
+package com.energy_company_v1.controller;
+
+import com.energy_company_v1.model.EnergyObject;
+import com.energy_company_v1.service.EnergyObjectService;
+import com.energy_company_v1.service.EnergyObjectTableVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * REST API реестра энергообъектов на схеме из миграций Flyway: условные запросы по ETag
+ * и лента изменений.
+ * Нужен Docker; без него тесты пропускаются.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class EnergyObjectApiControllerTests {
+	private static final String API = "/api/v1/energy-objects";
+
+	@Container
+	@ServiceConnection
+	static PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private EnergyObjectService energyObjectService;
+
+	@Autowired
+	private EnergyObjectTableVersion tableVersion;
+
+	private final JsonMapper jsonMapper = JsonMapper.builder().build();
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+	}
+
+	@Test
+	void matchingIfNoneMatchGets304() throws Exception {
+		create("Объект ETag");
+		String etag = etagOf(api(API, MediaType.APPLICATION_JSON_VALUE), 200);
+
+		MvcResult notModified = mockMvc.perform(api(API, MediaType.APPLICATION_JSON_VALUE)
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andReturn();
+		assertEquals("", notModified.getResponse().getContentAsString());
+		assertEquals(etag, notModified.getResponse().getHeader(HttpHeaders.ETAG));
+	}
+
+	@Test
+	void writeChangesETag() throws Exception {
+		create("Объект до записи");
+		String before = etagOf(api(API, MediaType.APPLICATION_JSON_VALUE), 200);
+
+		EnergyObject created = create("Объект после записи");
+		String afterCreate = etagOf(api(API, MediaType.APPLICATION_JSON_VALUE)
+				.header(HttpHeaders.IF_NONE_MATCH, before), 200);
+		assertNotEquals(before, afterCreate);
+
+		energyObjectService.deleteEnergyObject(created.getId());
+		String afterDelete = etagOf(api(API, MediaType.APPLICATION_JSON_VALUE)
+				.header(HttpHeaders.IF_NONE_MATCH, afterCreate), 200);
+		assertNotEquals(afterCreate, afterDelete);
+	}
+
+	@Test
+	void eachFormatHasOwnETag() throws Exception {
+		create("Объект форматов");
+		String json = etagOf(api(API, MediaType.APPLICATION_JSON_VALUE), 200);
+		String ndjson = etagOf(api(API, EnergyObjectApiController.APPLICATION_NDJSON_VALUE), 200);
+		String changes = etagOf(api(API + "/changes", EnergyObjectApiController.APPLICATION_NDJSON_VALUE)
+				.param("since", "0"), 200);
+		assertNotEquals(json, ndjson);
+		assertNotEquals(ndjson, changes);
+
+		// ETag представления JSON не подходит для NDJSON того же URL
+		etagOf(api(API, EnergyObjectApiController.APPLICATION_NDJSON_VALUE)
+				.header(HttpHeaders.IF_NONE_MATCH, json), 200);
+		etagOf(api(API, EnergyObjectApiController.APPLICATION_NDJSON_VALUE)
+				.header(HttpHeaders.IF_NONE_MATCH, ndjson), 304);
+	}
+
+	@Test
+	void changeFeedDeliversUpdatesAndTombstonesAcrossPages() throws Exception {
+		long start = tableVersion.current();
+		EnergyObject updated = create("Обновляемый");
+		EnergyObject deleted = create("Удаляемый");
+		updated.setPower(250.0);
+		energyObjectService.updateEnergyObject(updated.getId(), updated);
+		energyObjectService.deleteEnergyObject(deleted.getId());
+		EnergyObject created = create("Новый");
+
+		// Строка объекта хранит только последнее изменение: первое создание обновленного
+		// и создание удаленного в ленте уже не видны
+		List<Map<String, Object>> all = changes(start, 100);
+		assertEquals(List.of("upsert:" + updated.getId(), "delete:" + deleted.getId(), "upsert:" + created.getId()),
+				all.stream().map(EnergyObjectApiControllerTests::describe).toList());
+		assertEquals(250.0, ((Number) object(all.get(0)).get("power")).doubleValue());
+
+		// Постранично с since = номер последней строки: те же записи без пропусков и повторов
+		for (int limit = 1; limit <= 3; limit++) {
+			List<Map<String, Object>> paged = new ArrayList<>();
+			long since = start;
+			List<Map<String, Object>> page;
+			while (!(page = changes(since, limit)).isEmpty()) {
+				assertTrue(page.size() <= limit);
+				paged.addAll(page);
+				since = version(page.get(page.size() - 1));
+			}
+			assertEquals(all, paged, "limit " + limit);
+		}
+
+		for (int i = 1; i < all.size(); i++) {
+			assertTrue(version(all.get(i - 1)) < version(all.get(i)), "номера изменений возрастают");
+		}
+		assertTrue(changes(version(all.get(all.size() - 1)), 100).isEmpty());
+	}
+
+	private List<Map<String, Object>> changes(long since, int limit) throws Exception {
+		String body = mockMvc.perform(api(API + "/changes", EnergyObjectApiController.APPLICATION_NDJSON_VALUE)
+						.param("since", String.valueOf(since))
+						.param("limit", String.valueOf(limit)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+		List<Map<String, Object>> lines = new ArrayList<>();
+		for (String line : body.split("\n")) {
+			if (!line.isEmpty()) {
+				lines.add(jsonMapper.readValue(line, Map.class));
+			}
+		}
+		return lines;
+	}
+
+	private static String describe(Map<String, Object> change) {
+		Object id = "delete".equals(change.get("op")) ? change.get("id") : object(change).get("id");
+		return change.get("op") + ":" + ((Number) id).longValue();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> object(Map<String, Object> change) {
+		return (Map<String, Object>) change.get("object");
+	}
+
+	private static long version(Map<String, Object> change) {
+		return ((Number) change.get("changeVersion")).longValue();
+	}
+
+	private MockHttpServletRequestBuilder api(String url, String accept) {
+		return get(url).accept(accept).with(httpBasic("admin", "admin123"));
+	}
+
+	private String etagOf(MockHttpServletRequestBuilder request, int expectedStatus) throws Exception {
+		MvcResult result = mockMvc.perform(request).andExpect(status().is(expectedStatus)).andReturn();
+		String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotNull(etag);
+		return etag;
+	}
+
+	private EnergyObject create(String name) {
+		EnergyObject energyObject = new EnergyObject();
+		energyObject.setName(name);
+		energyObject.setType("ГЭС");
+		energyObject.setLocation("Саяны");
+		energyObject.setPower(100.0);
+		energyObject.setCommissioningYear(2000);
+		energyObject.setEfficiency(90.0);
+		return energyObjectService.createEnergyObject(energyObject);
+	}
+}
@@ -0,0 +1,194 @@
+package com.energy_company_v1.geo;
+
+import com.energy_company_v1.dto.MapCluster;
+import com.energy_company_v1.dto.MapPoint;
+import com.energy_company_v1.dto.MapViewport;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сверка сетки с полным перебором точек: области (в том числе через 180-й меридиан и
+ * у полюсов), группировка и поиск ближайших
+ */
+class SpatialGridTests {
+	private static final double[] CELL_DEGREES = {0.5, 0.7, 5, 90};
+
+	@Test
+	void viewportMatchesBruteForce() {
+		for (double cellDegrees : CELL_DEGREES) {
+			Fleet fleet = new Fleet(cellDegrees, 3000, 1);
+			Random random = new Random(2);
+			List<double[]> boxes = new ArrayList<>(List.of(
+					new double[]{-90, -180, 90, 180},
+					new double[]{-10, 170, 10, -170},
+					new double[]{60, 179.5, 90, -179.5},
+					new double[]{85, -180, 90, 180},
+					new double[]{-90, 0, -85, 180},
+					new double[]{0, 0, 0, 0},
+					new double[]{-1, -180, 1, -180},
+					new double[]{-1, 180, 1, 180}));
+			for (int i = 0; i < 200; i++) {
+				double south = random.nextDouble() * 180 - 90;
+				double north = south + random.nextDouble() * (90 - south);
+				boxes.add(new double[]{south, random.nextDouble() * 360 - 180, north, random.nextDouble() * 360 - 180});
+			}
+
+			for (double[] box : boxes) {
+				Set<Long> expected = fleet.inside(box);
+				MapViewport viewport = fleet.grid.viewport(box[0], box[1], box[2], box[3], 1, Integer.MAX_VALUE);
+
+				String message = "ячейка " + cellDegrees + ", область " + Arrays.toString(box);
+				assertFalse(viewport.isClustered(), message);
+				assertEquals(expected.size(), viewport.getTotal(), message);
+				assertEquals(expected, viewport.getPoints().stream().map(MapPoint::getId).collect(Collectors.toSet()),
+						message);
+			}
+		}
+	}
+
+	@Test
+	void clustersCoverAllPointsOfViewport() {
+		for (double cellDegrees : CELL_DEGREES) {
+			Fleet fleet = new Fleet(cellDegrees, 3000, 3);
+			for (double clusterDegrees : new double[]{0.1, 2, 10, 45}) {
+				for (double[] box : List.of(new double[]{-90, -180, 90, 180}, new double[]{-30, 150, 40, -120})) {
+					MapViewport viewport = fleet.grid.viewport(box[0], box[1], box[2], box[3], clusterDegrees, 10);
+
+					long expected = fleet.inside(box).size();
+					String message = "ячейка " + cellDegrees + ", группа " + clusterDegrees;
+					assertTrue(viewport.isClustered(), message);
+					assertEquals(expected, viewport.getTotal(), message);
+					assertEquals(expected, viewport.getClusters().stream().mapToLong(MapCluster::getCount).sum(), message);
+				}
+			}
+		}
+	}
+
+	@Test
+	void nearestMatchesBruteForce() {
+		for (double cellDegrees : CELL_DEGREES) {
+			Fleet fleet = new Fleet(cellDegrees, 2000, 4);
+			Random random = new Random(5);
+			List<double[]> queries = new ArrayList<>(List.of(
+					new double[]{90, 0}, new double[]{-90, 45}, new double[]{89.9, 179.9},
+					new double[]{0, 180}, new double[]{0, -180}, new double[]{-45, 179.99}));
+			for (int i = 0; i < 100; i++) {
+				queries.add(new double[]{random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180});
+			}
+
+			for (double[] query : queries) {
+				for (int k : new int[]{1, 7, 50}) {
+					for (double maxDistanceKm : new double[]{Double.POSITIVE_INFINITY, 500}) {
+						List<MapPoint> nearest = fleet.grid.nearest(query[0], query[1], k, maxDistanceKm);
+						List<Double> expected = fleet.nearestDistances(query[0], query[1], k, maxDistanceKm);
+
+						String message = "ячейка " + cellDegrees + ", точка " + query[0] + ", " + query[1]
+								+ ", k " + k + ", не дальше " + maxDistanceKm;
+						assertEquals(expected.size(), nearest.size(), message);
+						for (int i = 0; i < expected.size(); i++) {
+							MapPoint point = nearest.get(i);
+							assertEquals(expected.get(i), point.getDistanceKm(), 1e-3, message);
+							assertEquals(point.getDistanceKm(), SpatialGrid.distanceKm(query[0], query[1],
+									point.getLatitude(), point.getLongitude()), 1e-3, message);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void nearestInFleetSmallerThanK() {
+		SpatialGrid grid = new SpatialGrid(0.5);
+		grid.put(1, 10, 10, "ГЭС", 100, true);
+		grid.put(2, -10, -170, "ТЭЦ", 50, false);
+
+		List<MapPoint> nearest = grid.nearest(10, 11, 5, Double.POSITIVE_INFINITY);
+
+		assertEquals(List.of(1L, 2L), nearest.stream().map(MapPoint::getId).toList());
+	}
+
+	// Случайный парк со сгущениями у полюсов и 180-го меридиана; часть точек перемещена и удалена
+	private static final class Fleet {
+		private final SpatialGrid grid;
+		private final Map<Long, double[]> points = new HashMap<>();
+
+		private Fleet(double cellDegrees, int size, long seed) {
+			grid = new SpatialGrid(cellDegrees);
+			Random random = new Random(seed);
+			for (long id = 1; id <= size; id++) {
+				put(id, random);
+			}
+			for (long id = 1; id <= size; id += 7) {
+				put(id, random);
+			}
+			for (long id = 3; id <= size; id += 11) {
+				grid.remove(id);
+				points.remove(id);
+			}
+			assertEquals(points.size(), grid.size());
+		}
+
+		private void put(long id, Random random) {
+			double latitude;
+			double longitude;
+			switch ((int) (id % 4)) {
+				case 0 -> {
+					latitude = Math.copySign(90 - random.nextDouble() * 2, random.nextDouble() - 0.5);
+					longitude = random.nextDouble() * 360 - 180;
+				}
+				case 1 -> {
+					latitude = random.nextDouble() * 180 - 90;
+					longitude = random.nextBoolean() ? 180 - random.nextDouble() : -180 + random.nextDouble();
+				}
+				case 2 -> {
+					latitude = random.nextInt(7) * 30 - 90;
+					longitude = random.nextInt(9) * 45 - 180;
+				}
+				default -> {
+					latitude = random.nextDouble() * 180 - 90;
+					longitude = random.nextDouble() * 360 - 180;
+				}
+			}
+			grid.put(id, latitude, longitude, "ГЭС", id, id % 2 == 0);
+			points.put(id, new double[]{latitude, longitude});
+		}
+
+		private Set<Long> inside(double[] box) {
+			Set<Long> result = new HashSet<>();
+			boolean wraps = box[1] > box[3];
+			points.forEach((id, point) -> {
+				boolean latitude = point[0] >= box[0] && point[0] <= box[2];
+				boolean longitude = wraps ? point[1] >= box[1] || point[1] <= box[3]
+						: point[1] >= box[1] && point[1] <= box[3];
+				if (latitude && longitude) {
+					result.add(id);
+				}
+			});
+			return result;
+		}
+
+		private List<Double> nearestDistances(double latitude, double longitude, int k, double maxDistanceKm) {
+			return points.values().stream()
+					.map(point -> SpatialGrid.distanceKm(latitude, longitude, point[0], point[1]))
+					.filter(distance -> distance <= maxDistanceKm)
+					.sorted(Comparator.naturalOrder())
+					.limit(k)
+					.toList();
+		}
+	}
+}
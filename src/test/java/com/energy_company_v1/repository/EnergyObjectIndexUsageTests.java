@@ -0,0 +1,161 @@
+package com.energy_company_v1.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка по EXPLAIN, что основные запросы приложения на схеме из миграций Flyway
+ * используют индексы, а не полный просмотр таблицы. Нужен Docker; без него тесты пропускаются.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EnergyObjectIndexUsageTests {
+	private static final int OBJECTS = 100_000;
+	private static final int USERS = 10_000;
+
+	@Container
+	@ServiceConnection
+	static PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// Парк с редким типом 'ВЭС' (~1%), чтобы избирательность позволяла индексный доступ
+	@BeforeAll
+	void seed() {
+		jdbcTemplate.update("""
+				INSERT INTO energy_objects (name, type, location, power, commissioning_year, efficiency, active,
+				                            description, next_maintenance_due, change_version, updated_at)
+				SELECT 'Объект ' || g,
+				       CASE WHEN g % 100 = 0 THEN 'ВЭС' WHEN g % 2 = 0 THEN 'ТЭЦ' ELSE 'ГЭС' END,
+				       'Район ' || (g % 500),
+				       (g % 5000) + 0.5,
+				       1950 + (g % 75),
+				       (g % 1000) / 10.0,
+				       g % 10 <> 0,
+				       CASE WHEN g % 1000 = 0 THEN 'ветропарк побережье' ELSE 'генерация' END,
+				       DATE '2020-01-01' + (g % 3650),
+				       nextval('energy_objects_change_seq'),
+				       CURRENT_TIMESTAMP
+				FROM generate_series(1, ?) AS g
+				""", OBJECTS);
+		jdbcTemplate.update("""
+				INSERT INTO users (username, email, password, created_at)
+				SELECT 'user' || g, 'user' || g || '@example.com', 'x', CURRENT_TIMESTAMP
+				FROM generate_series(1, ?) AS g
+				""", USERS);
+		jdbcTemplate.execute("VACUUM ANALYZE energy_objects");
+		jdbcTemplate.execute("VACUUM ANALYZE users");
+	}
+
+	@Test
+	void findByTypeUsesTypeIndex() {
+		assertIndexScan(explain(false, "SELECT * FROM energy_objects WHERE type = ?", "ВЭС"),
+				"idx_energy_objects_type");
+	}
+
+	@Test
+	void sortedPagesUseCompositeIndexes() {
+		assertIndexScan(explain(false, "SELECT * FROM energy_objects ORDER BY power, id LIMIT 20"),
+				"idx_energy_objects_power_id");
+		assertIndexScan(explain(false, "SELECT * FROM energy_objects ORDER BY commissioning_year DESC, id DESC LIMIT 20"),
+				"idx_energy_objects_commissioning_year_id");
+		assertIndexScan(explain(false, "SELECT * FROM energy_objects ORDER BY efficiency, id LIMIT 20"),
+				"idx_energy_objects_efficiency_id");
+		assertIndexScan(explain(false, "SELECT * FROM energy_objects ORDER BY name, id LIMIT 20"),
+				"idx_energy_objects_name_id");
+	}
+
+	// Условие, которое Spring Data строит для keyset-прокрутки по (power, id)
+	@Test
+	void keysetPageUsesCompositeIndex() {
+		assertIndexScan(explain(false, "SELECT * FROM energy_objects WHERE power > ? OR (power = ? AND id > ?) "
+						+ "ORDER BY power, id LIMIT 20", 2500.5, 2500.5, 50_000L),
+				"idx_energy_objects_power_id");
+	}
+
+	@Test
+	void changeFeedUsesChangeVersionIndex() {
+		long since = jdbcTemplate.queryForObject("SELECT max(change_version) - 100 FROM energy_objects", Long.class);
+		assertIndexScan(explain(false, "SELECT * FROM energy_objects WHERE change_version > ? ORDER BY change_version",
+				since), "idx_energy_objects_change_version");
+	}
+
+	@Test
+	void fullTextSearchUsesGinIndex() {
+		assertIndexScan(explain(false, "SELECT * FROM energy_objects WHERE " + EnergyObjectRepository.FULL_TEXT_DOCUMENT
+				+ " @@ to_tsquery('russian', ?)", "ветропарк:*"), "idx_energy_objects_fts");
+	}
+
+	// Очередь плановых ТО "сначала просроченные" и число просроченных
+	@Test
+	void maintenanceQueueUsesNextDueIndex() {
+		assertIndexScan(explain(false, "SELECT * FROM energy_objects WHERE next_maintenance_due IS NOT NULL "
+				+ "ORDER BY next_maintenance_due, id LIMIT 20"), "idx_energy_objects_next_maintenance_due_id");
+		assertIndexScan(explain(false, "SELECT count(*) FROM energy_objects WHERE next_maintenance_due < ?",
+				Date.valueOf("2020-03-01")), "idx_energy_objects_next_maintenance_due_id");
+	}
+
+	@Test
+	void userLookupsUseUniqueIndexes() {
+		assertIndexScan(explain(false, "SELECT * FROM users WHERE username = ?", "user42"), "ux_users_username");
+		assertIndexScan(explain(false, "SELECT * FROM users WHERE email = ?", "user42@example.com"), "ux_users_email");
+	}
+
+	// 90% объектов активны: полный просмотр здесь честно дешевле, поэтому проверяется только,
+	// что индекс (active, power) пригоден для запроса, когда seq scan запрещен
+	@Test
+	void totalActivePowerCanUseCoveringIndex() {
+		assertIndexScan(explain(true, "SELECT SUM(power) FROM energy_objects WHERE active = true"),
+				"idx_energy_objects_active_power");
+	}
+
+	private List<String> explain(boolean disableSeqScan, String sql, Object... args) {
+		return jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("SET enable_seqscan = " + (disableSeqScan ? "off" : "on"));
+			}
+			List<String> plan = new ArrayList<>();
+			try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+				for (int i = 0; i < args.length; i++) {
+					statement.setObject(i + 1, args[i]);
+				}
+				try (ResultSet rs = statement.executeQuery()) {
+					while (rs.next()) {
+						plan.add(rs.getString(1));
+					}
+				}
+			} finally {
+				try (Statement statement = connection.createStatement()) {
+					statement.execute("RESET enable_seqscan");
+				}
+			}
+			return plan;
+		});
+	}
+
+	private static void assertIndexScan(List<String> plan, String indexName) {
+		String text = String.join("\n", plan);
+		assertTrue(text.contains(indexName) && text.matches("(?s).*(Index Scan|Index Only Scan|Bitmap Index Scan).*"),
+				"Ожидался доступ по индексу " + indexName + ", план:\n" + text);
+	}
+}
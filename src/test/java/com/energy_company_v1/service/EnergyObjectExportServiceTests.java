@@ -0,0 +1,170 @@
+package com.energy_company_v1.service;
+
+import com.energy_company_v1.model.EnergyObject;
+import com.energy_company_v1.repository.EnergyObjectRepository;
+import com.energy_company_v1.repository.EnergyObjectTombstoneRepository;
+import jakarta.persistence.EntityManager;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Потоковая выгрузка: заголовки и строки CSV/XLSX читаются обратно без потерь,
+ * включая значения с разделителями, кавычками и переводами строк
+ */
+class EnergyObjectExportServiceTests {
+	private static final Sort SORT = Sort.by(Sort.Direction.DESC, "power");
+	private static final Sort SORT_WITH_ID = SORT.and(Sort.by(Sort.Direction.DESC, "id"));
+	private static final List<String> HEADERS = List.of("ID", "Название", "Тип", "Местоположение", "Мощность, МВт",
+			"Год ввода", "КПД, %", "Активен", "Последнее ТО", "Описание", "Широта", "Долгота");
+
+	private final EnergyObjectRepository repository = mock(EnergyObjectRepository.class);
+	private final EnergyObjectExportService exportService = new EnergyObjectExportService(repository,
+			mock(EnergyObjectTombstoneRepository.class), mock(EntityManager.class), JsonMapper.builder().build());
+
+	@Test
+	void csvRoundTrip() throws IOException {
+		List<EnergyObject> objects = objects();
+		when(repository.streamAll(SORT_WITH_ID)).thenReturn(objects.stream());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exportService.exportCsv(null, SORT, out);
+
+		String csv = out.toString(StandardCharsets.UTF_8);
+		assertEquals('\uFEFF', csv.charAt(0));
+		List<List<String>> lines = parseCsv(csv.substring(1));
+		assertEquals(HEADERS, lines.get(0));
+		assertEquals(objects.size() + 1, lines.size());
+		assertEquals(List.of("1", "Саяно-Шушенская ГЭС", "ГЭС", "Хакасия", "6400.0", "1978", "95.0", "Да",
+				"2025-06-01", "плотина; \"арочно-гравитационная\"\r\nвторая строка", "52.83", "91.37"), lines.get(1));
+		assertEquals(List.of("2", "ТЭЦ-22", "ТЭЦ", "Москва", "1310.0", "1960", "38.5", "Нет", "", "", "", ""),
+				lines.get(2));
+		verify(repository).streamAll(SORT_WITH_ID);
+	}
+
+	@Test
+	void xlsxRoundTrip() throws IOException {
+		List<EnergyObject> objects = objects();
+		when(repository.streamAll(SORT_WITH_ID)).thenReturn(objects.stream());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exportService.exportXlsx(null, SORT, out);
+
+		try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+			Sheet sheet = workbook.getSheet("Энергообъекты");
+			List<String> headers = new ArrayList<>();
+			sheet.getRow(0).forEach(cell -> headers.add(cell.getStringCellValue()));
+			assertEquals(HEADERS, headers);
+			assertEquals(objects.size(), sheet.getLastRowNum());
+
+			Row first = sheet.getRow(1);
+			assertEquals(1.0, first.getCell(0).getNumericCellValue());
+			assertEquals("Саяно-Шушенская ГЭС", first.getCell(1).getStringCellValue());
+			assertEquals(6400.0, first.getCell(4).getNumericCellValue());
+			assertEquals(1978.0, first.getCell(5).getNumericCellValue());
+			assertEquals("Да", first.getCell(7).getStringCellValue());
+			// Перевод строки в XML ячейки может прийти без \r
+			assertEquals("плотина; \"арочно-гравитационная\"\nвторая строка",
+					first.getCell(9).getStringCellValue().replace("\r", ""));
+			assertEquals(91.37, first.getCell(11).getNumericCellValue());
+
+			Row second = sheet.getRow(2);
+			assertEquals(2.0, second.getCell(0).getNumericCellValue());
+			assertEquals("Нет", second.getCell(7).getStringCellValue());
+			assertNull(second.getCell(10));
+		}
+	}
+
+	@Test
+	void emptyExportHasOnlyHeaders() throws IOException {
+		when(repository.streamAll(SORT_WITH_ID)).thenReturn(Stream.empty());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exportService.exportCsv("  ", SORT, out);
+
+		List<List<String>> lines = parseCsv(out.toString(StandardCharsets.UTF_8).substring(1));
+		assertEquals(List.of(HEADERS), lines);
+		assertFalse(lines.get(0).isEmpty());
+	}
+
+	private static List<EnergyObject> objects() {
+		EnergyObject hydro = new EnergyObject();
+		hydro.setId(1L);
+		hydro.setName("Саяно-Шушенская ГЭС");
+		hydro.setType("ГЭС");
+		hydro.setLocation("Хакасия");
+		hydro.setPower(6400.0);
+		hydro.setCommissioningYear(1978);
+		hydro.setEfficiency(95.0);
+		hydro.setActive(true);
+		hydro.setLastMaintenanceDate(LocalDate.of(2025, 6, 1));
+		hydro.setDescription("плотина; \"арочно-гравитационная\"\r\nвторая строка");
+		hydro.setLatitude(52.83);
+		hydro.setLongitude(91.37);
+
+		EnergyObject thermal = new EnergyObject();
+		thermal.setId(2L);
+		thermal.setName("ТЭЦ-22");
+		thermal.setType("ТЭЦ");
+		thermal.setLocation("Москва");
+		thermal.setPower(1310.0);
+		thermal.setCommissioningYear(1960);
+		thermal.setEfficiency(38.5);
+		thermal.setActive(false);
+		return List.of(hydro, thermal);
+	}
+
+	// CSV с разделителем ';', строки через CRLF, поля в кавычках с удвоенными кавычками внутри
+	private static List<List<String>> parseCsv(String csv) {
+		List<List<String>> lines = new ArrayList<>();
+		List<String> cells = new ArrayList<>();
+		StringBuilder cell = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < csv.length(); i++) {
+			char c = csv.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+					cell.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					cell.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ';') {
+				cells.add(cell.toString());
+				cell.setLength(0);
+			} else if (c == '\r' && i + 1 < csv.length() && csv.charAt(i + 1) == '\n') {
+				cells.add(cell.toString());
+				cell.setLength(0);
+				lines.add(cells);
+				cells = new ArrayList<>();
+				i++;
+			} else {
+				cell.append(c);
+			}
+		}
+		return lines;
+	}
+}
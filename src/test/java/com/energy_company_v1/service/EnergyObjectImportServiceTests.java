@@ -0,0 +1,159 @@
+package com.energy_company_v1.service;
+
+import com.energy_company_v1.dto.ImportReport;
+import com.energy_company_v1.model.EnergyObject;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Массовая загрузка: корректные строки уходят пакетами, ошибочные попадают в отчет
+ * с номером строки, кэш запросов сбрасывается один раз на загрузку
+ */
+class EnergyObjectImportServiceTests {
+	private static final String CSV_HEADER = "Название;Тип;Местоположение;Мощность, МВт;Год ввода;КПД, %;Активен\n";
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final FleetStatisticsCache fleetStatisticsCache = mock(FleetStatisticsCache.class);
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+	private final EnergyObjectCacheEvictor cacheEvictor = mock(EnergyObjectCacheEvictor.class);
+	private final List<List<String>> insertedBatches = new ArrayList<>();
+	private ValidatorFactory validatorFactory;
+	private EnergyObjectImportService importService;
+
+	@BeforeEach
+	void setUp() {
+		validatorFactory = Validation.buildDefaultValidatorFactory();
+		importService = new EnergyObjectImportService(jdbcTemplate, new StubTransactionManager(),
+				validatorFactory.getValidator(), JsonMapper.builder().build(), fleetStatisticsCache, eventPublisher,
+				cacheEvictor, mock(MaintenanceIntervals.class), 2);
+		when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+				.thenAnswer(invocation -> {
+					Collection<EnergyObject> batch = invocation.getArgument(1);
+					insertedBatches.add(batch.stream().map(EnergyObject::getName).toList());
+					return new int[0][];
+				});
+	}
+
+	@AfterEach
+	void closeValidator() {
+		validatorFactory.close();
+	}
+
+	@Test
+	void csvValidRowsImportedInBatchesAndInvalidReported() throws IOException {
+		ImportReport report = importService.importCsv(csv(CSV_HEADER
+				+ "ГЭС-1;ГЭС;Саяны;6400;1978;95;Да\n"
+				+ "ТЭЦ-2;ТЭЦ;Москва;1310,5;1960;38;Нет\n"
+				+ ";ГЭС;Саяны;10;1990;50;Да\n"
+				+ "АЭС-4;АЭС;Тверь;много;1984;33;Да\n"
+				+ "\n"
+				+ "СЭС-5;СЭС;Крым;100;2015;20;да\n"
+				+ "ВЭС-6;ВЭС;Адыгея;150;2020;35;нет\n"));
+
+		assertEquals(6, report.getTotalRows());
+		assertEquals(4, report.getImportedRows());
+		assertEquals(2, report.getFailedRows());
+		assertEquals(4, report.getErrors().get(0).getRow());
+		assertEquals("Название обязательно", report.getErrors().get(0).getMessage());
+		assertEquals(5, report.getErrors().get(1).getRow());
+		assertEquals("Некорректное значение 'много' в колонке power", report.getErrors().get(1).getMessage());
+		assertEquals(List.of(List.of("ГЭС-1", "ТЭЦ-2"), List.of("СЭС-5", "ВЭС-6")), insertedBatches);
+		verifyFinishedOnce(1);
+	}
+
+	@Test
+	void jsonInvalidObjectReported() {
+		ImportReport report = importService.importJson(json("""
+				[{"name": "ГЭС-1", "type": "ГЭС", "location": "Саяны", "power": 6400, "commissioningYear": 1978,
+				  "efficiency": 95},
+				 {"name": "ТЭЦ-2", "type": "ТЭЦ", "location": "Москва", "power": 1310, "commissioningYear": 1960,
+				  "efficiency": 150}]
+				"""));
+
+		assertEquals(2, report.getTotalRows());
+		assertEquals(1, report.getImportedRows());
+		assertEquals(2, report.getErrors().get(0).getRow());
+		assertEquals("КПД не может превышать 100%", report.getErrors().get(0).getMessage());
+		assertEquals(List.of(List.of("ГЭС-1")), insertedBatches);
+		verifyFinishedOnce(1);
+	}
+
+	@Test
+	void failedBatchReportsEachRow() throws IOException {
+		when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+				.thenThrow(new DataIntegrityViolationException("нарушено ограничение"));
+
+		ImportReport report = importService.importCsv(csv(CSV_HEADER
+				+ "ГЭС-1;ГЭС;Саяны;6400;1978;95;Да\n"
+				+ "ТЭЦ-2;ТЭЦ;Москва;1310;1960;38;Нет\n"));
+
+		assertEquals(0, report.getImportedRows());
+		assertEquals(2, report.getFailedRows());
+		assertEquals(List.of(2L, 3L), report.getErrors().stream().map(ImportReport.RowError::getRow).toList());
+		// Ничего не вставлено - кэш запросов не сбрасывается
+		verifyFinishedOnce(0);
+	}
+
+	private void verifyFinishedOnce(int queryEvictions) {
+		verify(cacheEvictor, times(queryEvictions)).evictQueries();
+		verify(cacheEvictor, never()).evictAll();
+		verify(fleetStatisticsCache, times(1)).reconcile();
+		verify(eventPublisher, times(1)).publishEvent(argThat((Object event) ->
+				event instanceof EnergyObjectChangedEvent changed && changed.isBulk()));
+	}
+
+	private static InputStream csv(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static InputStream json(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static final class StubTransactionManager implements PlatformTransactionManager {
+		@Override
+		public TransactionStatus getTransaction(TransactionDefinition definition) {
+			return new SimpleTransactionStatus();
+		}
+
+		@Override
+		public void commit(TransactionStatus status) {
+		}
+
+		@Override
+		public void rollback(TransactionStatus status) {
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package com.energy_company_v1.service;
+
+import com.energy_company_v1.dto.CursorPage;
+import com.energy_company_v1.model.EnergyObject;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Курсорная прокрутка результатов полнотекстового поиска: при равных значениях ключа
+ * сортировки на границах страниц строки не повторяются и не пропускаются.
+ * Нужен Docker; без него тесты пропускаются.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EnergyObjectScrollTests {
+	private static final int MATCHING = 30;
+	private static final int PAGE_SIZE = 4;
+
+	@Container
+	@ServiceConnection
+	static PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+	@Autowired
+	private EnergyObjectService energyObjectService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// Совпадающие объекты с тремя значениями мощности (по 10 на значение) вперемешку с несовпадающими
+	@BeforeAll
+	void seed() {
+		jdbcTemplate.update("""
+				INSERT INTO energy_objects (name, type, location, power, commissioning_year, efficiency, active,
+				                            description, change_version, updated_at)
+				SELECT CASE WHEN g % 2 = 0 THEN 'Ветропарк ' ELSE 'Котельная ' END || g,
+				       'ВЭС', 'Побережье', 100 * (1 + (g / 2) % 3), 2000 + (g / 2) % 2, 35, true, 'генерация',
+				       nextval('energy_objects_change_seq'), CURRENT_TIMESTAMP
+				FROM generate_series(1, ?) AS g
+				""", MATCHING * 2);
+	}
+
+	@Test
+	void forwardScrollWithTiesHasNoDuplicatesOrGaps() {
+		for (Sort.Direction direction : Sort.Direction.values()) {
+			for (String sortBy : List.of("power", "commissioningYear", "name", "id")) {
+				List<Long> ids = new ArrayList<>();
+				CursorPage<EnergyObject> page = scroll(sortBy, direction, null, null);
+				assertNull(page.getPreviousCursor());
+				collect(ids, page);
+				while (page.getNextCursor() != null) {
+					page = scroll(sortBy, direction, page.getNextCursor(), null);
+					assertFalse(page.getContent().isEmpty(), "пустая страница при наличии курсора");
+					collect(ids, page);
+				}
+				assertEquals(expectedIds(sortBy, direction), ids, sortBy + " " + direction);
+			}
+		}
+	}
+
+	@Test
+	void backwardScrollReturnsSamePages() {
+		List<Long> expected = expectedIds("power", Sort.Direction.DESC);
+		CursorPage<EnergyObject> page = scroll("power", Sort.Direction.DESC, null, null);
+		while (page.getNextCursor() != null) {
+			page = scroll("power", Sort.Direction.DESC, page.getNextCursor(), null);
+		}
+
+		// От последней страницы назад: каждая страница - в прямом порядке сортировки
+		List<List<Long>> pages = new ArrayList<>();
+		pages.add(ids(page));
+		while (page.getPreviousCursor() != null) {
+			page = scroll("power", Sort.Direction.DESC, null, page.getPreviousCursor());
+			pages.add(ids(page));
+		}
+		Collections.reverse(pages);
+		assertEquals(expected, pages.stream().flatMap(List::stream).toList());
+	}
+
+	private CursorPage<EnergyObject> scroll(String sortBy, Sort.Direction direction, String after, String before) {
+		return energyObjectService.scrollEnergyObjects("ветропарк", sortBy, direction, after, before,
+				PAGE_SIZE, false);
+	}
+
+	private static void collect(List<Long> ids, CursorPage<EnergyObject> page) {
+		for (Long id : ids(page)) {
+			assertFalse(ids.contains(id), "повтор id " + id);
+			ids.add(id);
+		}
+	}
+
+	private static List<Long> ids(CursorPage<EnergyObject> page) {
+		return page.getContent().stream().map(EnergyObject::getId).toList();
+	}
+
+	private List<Long> expectedIds(String sortBy, Sort.Direction direction) {
+		String column = "commissioningYear".equals(sortBy) ? "commissioning_year" : sortBy;
+		String order = direction.isDescending() ? " DESC" : " ASC";
+		List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM energy_objects WHERE name LIKE 'Ветропарк%' "
+				+ "ORDER BY " + column + order + ", id" + order, Long.class);
+		assertEquals(MATCHING, new HashSet<>(ids).size());
+		return ids;
+	}
+}
@@ -0,0 +1,144 @@
+package com.energy_company_v1.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Рассылка SSE: медленный подписчик получает только последнее состояние,
+ * зависший - отключается, не задерживая остальных
+ */
+class FleetEventBroadcasterTests {
+	private static final long WAIT_SECONDS = 5;
+
+	private final JsonMapper jsonMapper = JsonMapper.builder().build();
+	private final FleetEventBroadcaster broadcaster = new FleetEventBroadcaster(mock(FleetStatisticsCache.class),
+			jsonMapper, Duration.ofMinutes(30), Duration.ofMillis(50));
+
+	@AfterEach
+	void tearDown() {
+		broadcaster.destroy();
+	}
+
+	@Test
+	void slowSubscriberKeepsOnlyLatestFrame() throws Exception {
+		RecordingEmitter fast = new RecordingEmitter(null);
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingEmitter slow = new RecordingEmitter(release);
+		broadcaster.subscribe(fast);
+		broadcaster.subscribe(slow);
+
+		publish(1L);
+		assertTrue(slow.firstSendStarted.await(WAIT_SECONDS, TimeUnit.SECONDS));
+		// Пока первый кадр не принят, следующие две пачки сливаются в один ожидающий кадр
+		publish(2L);
+		publish(3L);
+		fast.awaitFrames(3);
+		release.countDown();
+		slow.awaitFrames(2);
+
+		assertEquals(List.of(1L, 2L, 3L), fast.frames.stream().map(frame -> seq(frame)).toList());
+		fast.frames.forEach(frame -> assertEquals(false, frame.get("reload")));
+
+		assertEquals(2, slow.frames.size());
+		assertEquals(1L, seq(slow.frames.get(0)));
+		assertEquals(List.of(Map.of("id", 1)), slow.frames.get(0).get("upserts"));
+		// Изменения второй пачки до подписчика не дошли - вместо них признак перезагрузки
+		assertEquals(3L, seq(slow.frames.get(1)));
+		assertEquals(true, slow.frames.get(1).get("reload"));
+		assertEquals(List.of(), slow.frames.get(1).get("upserts"));
+	}
+
+	@Test
+	void stalledSubscriberIsClosed() throws Exception {
+		CountDownLatch never = new CountDownLatch(1);
+		RecordingEmitter stalled = new RecordingEmitter(never);
+		RecordingEmitter healthy = new RecordingEmitter(null);
+		broadcaster.subscribe(stalled);
+		broadcaster.subscribe(healthy);
+
+		publish(1L);
+		assertTrue(stalled.firstSendStarted.await(WAIT_SECONDS, TimeUnit.SECONDS));
+		Thread.sleep(100);
+		broadcaster.closeStalledSubscribers();
+
+		assertTrue(stalled.completed.await(WAIT_SECONDS, TimeUnit.SECONDS));
+		assertEquals(1, broadcaster.getSubscriberCount());
+
+		publish(2L);
+		healthy.awaitFrames(2);
+		never.countDown();
+		Thread.sleep(100);
+		assertEquals(1, stalled.frames.size(), "закрытому подписчику кадры больше не отправляются");
+	}
+
+	private void publish(long id) {
+		broadcaster.onEnergyObjectChanged(EnergyObjectChangedEvent.upserted(Map.of("id", id)));
+		broadcaster.flush();
+	}
+
+	private static long seq(Map<String, Object> frame) {
+		return ((Number) frame.get("seq")).longValue();
+	}
+
+	/**
+	 * Запоминает JSON отправленных кадров; с gate первая отправка ждет, пока gate не откроют
+	 */
+	private final class RecordingEmitter extends SseEmitter {
+		private final CountDownLatch gate;
+		private final CountDownLatch firstSendStarted = new CountDownLatch(1);
+		private final CountDownLatch completed = new CountDownLatch(1);
+		private final List<Map<String, Object>> frames = new CopyOnWriteArrayList<>();
+
+		private RecordingEmitter(CountDownLatch gate) {
+			this.gate = gate;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) {
+			boolean first = firstSendStarted.getCount() > 0;
+			firstSendStarted.countDown();
+			if (first && gate != null) {
+				try {
+					gate.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			for (ResponseBodyEmitter.DataWithMediaType item : items) {
+				if (MediaType.APPLICATION_JSON.equals(item.getMediaType())) {
+					frames.add(jsonMapper.readValue((String) item.getData(), Map.class));
+				}
+			}
+		}
+
+		@Override
+		public void complete() {
+			completed.countDown();
+		}
+
+		private void awaitFrames(int count) throws InterruptedException {
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(WAIT_SECONDS);
+			while (frames.size() < count && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+			assertEquals(count, frames.size());
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package com.energy_company_v1.service;
+
+import com.energy_company_v1.dto.FleetStatistics;
+import com.energy_company_v1.dto.TypeStatistics;
+import com.energy_company_v1.model.EnergyObject;
+import com.energy_company_v1.repository.EnergyObjectRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Счетчики статистики: первичный расчет, дельты изменений, откат транзакции и порядок
+ * "коммит - пересчет - запоздавший afterCommit"
+ */
+class FleetStatisticsCacheTests {
+	private final EnergyObjectRepository repository = mock(EnergyObjectRepository.class);
+	private final EnergyObjectTableVersion tableVersion = mock(EnergyObjectTableVersion.class);
+	private final List<EnergyObject> table = new ArrayList<>();
+	private FleetStatisticsCache cache;
+
+	@BeforeEach
+	void setUp() {
+		when(repository.aggregateByType()).thenAnswer(invocation -> aggregate());
+		cache = new FleetStatisticsCache(repository, tableVersion, new StubTransactionManager());
+		commit(object("ГЭС", true, 100), 1);
+		commit(object("ТЭЦ", false, 50), 2);
+	}
+
+	@AfterEach
+	void clearSynchronization() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void initialBuildReadsAggregate() {
+		FleetStatistics statistics = cache.getStatistics();
+
+		assertEquals(2, statistics.getTotalObjects());
+		assertEquals(1, statistics.getActiveObjects());
+		assertEquals(150.0, statistics.getTotalPower());
+		assertEquals(Map.of("ГЭС", 1L, "ТЭЦ", 1L), statistics.getTypeCounts());
+	}
+
+	@Test
+	void createUpdateDeleteDeltas() {
+		cache.getStatistics();
+		EnergyObject created = object("ГЭС", true, 30);
+		cache.applyChange(null, FleetStatisticsCache.snapshot(created), 3);
+		assertEquals(Map.of("ГЭС", 2L, "ТЭЦ", 1L), cache.getStatistics().getTypeCounts());
+
+		FleetStatisticsCache.Snapshot before = FleetStatisticsCache.snapshot(created);
+		created.setType("ТЭЦ");
+		created.setActive(false);
+		cache.applyChange(before, FleetStatisticsCache.snapshot(created), 4);
+		FleetStatistics updated = cache.getStatistics();
+		assertEquals(Map.of("ГЭС", 1L, "ТЭЦ", 2L), updated.getTypeCounts());
+		assertEquals(1, updated.getActiveObjects());
+		assertEquals(180.0, updated.getTotalPower());
+
+		cache.applyChange(FleetStatisticsCache.snapshot(created), null, 5);
+		FleetStatistics deleted = cache.getStatistics();
+		assertEquals(2, deleted.getTotalObjects());
+		assertEquals(150.0, deleted.getTotalPower());
+	}
+
+	@Test
+	void rolledBackChangeNotApplied() {
+		cache.getStatistics();
+		TransactionSynchronizationManager.initSynchronization();
+		cache.applyChange(null, FleetStatisticsCache.snapshot(object("ГЭС", true, 30)), 3);
+
+		completeTransaction(false);
+
+		assertEquals(2, cache.getStatistics().getTotalObjects());
+	}
+
+	@Test
+	void lateAfterCommitNotCountedTwice() {
+		cache.getStatistics();
+		TransactionSynchronizationManager.initSynchronization();
+		EnergyObject created = object("ГЭС", true, 30);
+		cache.applyChange(null, FleetStatisticsCache.snapshot(created), 3);
+
+		// Строка зафиксирована и попала в снимок пересчета раньше, чем выполнился afterCommit
+		commit(created, 3);
+		cache.reconcile();
+		completeTransaction(true);
+
+		FleetStatistics statistics = cache.getStatistics();
+		assertEquals(3, statistics.getTotalObjects());
+		assertEquals(180.0, statistics.getTotalPower());
+
+		// Изменения новее снимка по-прежнему применяются
+		cache.applyChange(null, FleetStatisticsCache.snapshot(object("ТЭЦ", true, 20)), 4);
+		assertEquals(4, cache.getStatistics().getTotalObjects());
+	}
+
+	// Изменение видно в БД (агрегат и версия таблицы), но дельта по нему не применялась
+	private void commit(EnergyObject energyObject, long version) {
+		table.add(energyObject);
+		when(tableVersion.current()).thenReturn(version);
+	}
+
+	private static void completeTransaction(boolean committed) {
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		for (TransactionSynchronization synchronization : synchronizations) {
+			if (committed) {
+				synchronization.afterCommit();
+			}
+			synchronization.afterCompletion(committed ? TransactionSynchronization.STATUS_COMMITTED
+					: TransactionSynchronization.STATUS_ROLLED_BACK);
+		}
+	}
+
+	private List<TypeStatistics> aggregate() {
+		Map<String, FleetStatisticsCache.TypeCounters> rows = new LinkedHashMap<>();
+		for (EnergyObject energyObject : table) {
+			rows.computeIfAbsent(energyObject.getType(), FleetStatisticsCache.TypeCounters::new)
+					.apply(FleetStatisticsCache.snapshot(energyObject), 1);
+		}
+		return new ArrayList<>(rows.values());
+	}
+
+	private static EnergyObject object(String type, boolean active, double power) {
+		EnergyObject energyObject = new EnergyObject();
+		energyObject.setName(type + " " + power);
+		energyObject.setType(type);
+		energyObject.setActive(active);
+		energyObject.setPower(power);
+		energyObject.setEfficiency(40.0);
+		return energyObject;
+	}
+
+	private static final class StubTransactionManager implements PlatformTransactionManager {
+		@Override
+		public TransactionStatus getTransaction(TransactionDefinition definition) {
+			return new SimpleTransactionStatus();
+		}
+
+		@Override
+		public void commit(TransactionStatus status) {
+		}
+
+		@Override
+		public void rollback(TransactionStatus status) {
+		}
+	}
+}
@@ -0,0 +1,201 @@
+package com.energy_company_v1.service;
+
+import com.energy_company_v1.repository.EnergyObjectRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.Date;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Очередь плановых ТО с управляемыми часами: каждая дата объявляется один раз,
+ * в том числе после перестроения очереди и перезапуска
+ */
+class MaintenanceSchedulerTests {
+	private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+	private final EnergyObjectRepository energyObjectRepository = mock(EnergyObjectRepository.class);
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+	private final MutableClock clock = new MutableClock(TODAY);
+
+	private final List<Object[]> schedule = new ArrayList<>();
+	private final List<String> announced = new ArrayList<>();
+	// maintenance_announcements.announced_through
+	private LocalDate persistedAnnouncedThrough;
+	private Runnable timerTask;
+	private Instant timerAt;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		when(energyObjectRepository.findMaintenanceSchedule()).thenAnswer(invocation -> new ArrayList<>(schedule));
+		// Все даты в БД уже заполнены - проход recompute ничего не пишет
+		when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), anyLong())).thenReturn(0);
+		when(jdbcTemplate.queryForObject(anyString(), eq(LocalDate.class)))
+				.thenAnswer(invocation -> persistedAnnouncedThrough);
+		doAnswer(invocation -> {
+			persistedAnnouncedThrough = ((Date) invocation.getArgument(1)).toLocalDate();
+			return 1;
+		}).when(jdbcTemplate).update(anyString(), any(Date.class));
+		when(taskScheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+			timerTask = invocation.getArgument(0);
+			timerAt = invocation.getArgument(1);
+			return mock(ScheduledFuture.class);
+		});
+		doAnswer(invocation -> {
+			if (invocation.getArgument(0) instanceof MaintenanceDueEvent event) {
+				event.getObjects().forEach(due -> announced.add(due.getObjectId() + "@" + due.getDueDate()));
+			}
+			return null;
+		}).when(eventPublisher).publishEvent(any(Object.class));
+	}
+
+	@Test
+	void eachDateAnnouncedOnceAcrossRebuilds() {
+		schedule.add(new Object[]{1L, TODAY.minusDays(9)});
+		schedule.add(new Object[]{2L, TODAY});
+		schedule.add(new Object[]{3L, TODAY.plusDays(4)});
+		MaintenanceScheduler scheduler = newScheduler();
+
+		scheduler.rebuild();
+		// Просроченная дата - таймер на "сейчас"
+		assertEquals(clock.instant(), timerAt);
+		fireTimer();
+		assertEquals(List.of("1@2026-02-20", "2@2026-03-01"), announced);
+		assertEquals(TODAY, persistedAnnouncedThrough);
+		assertEquals(midnight(TODAY.plusDays(4)), timerAt);
+
+		// Перестроение (импорт, recomputeAll) не объявляет прошедшие даты повторно
+		scheduler.rebuild();
+		assertEquals(midnight(TODAY.plusDays(4)), timerAt);
+
+		clock.set(TODAY.plusDays(4));
+		fireTimer();
+		assertEquals(List.of("1@2026-02-20", "2@2026-03-01", "3@2026-03-05"), announced);
+
+		scheduler.rebuild();
+		assertNull(timerTask, "объявлять больше нечего");
+		assertEquals(3, announced.size());
+	}
+
+	@Test
+	void restartDoesNotRepeatAnnouncedDates() {
+		schedule.add(new Object[]{1L, TODAY.minusDays(1)});
+		schedule.add(new Object[]{2L, TODAY.plusDays(2)});
+		newScheduler().rebuild();
+		fireTimer();
+		assertEquals(List.of("1@2026-02-28"), announced);
+
+		// Новый экземпляр читает дату последнего объявления из БД
+		clock.set(TODAY.plusDays(3));
+		newScheduler().rebuild();
+		fireTimer();
+		assertEquals(List.of("1@2026-02-28", "2@2026-03-03"), announced);
+	}
+
+	@Test
+	void changedDateAnnouncedAgain() {
+		schedule.add(new Object[]{1L, TODAY});
+		MaintenanceScheduler scheduler = newScheduler();
+		scheduler.rebuild();
+		fireTimer();
+
+		// ТО проведено - новая дата объявляется, когда наступит
+		scheduler.schedule(1L, TODAY.plusDays(10));
+		schedule.set(0, new Object[]{1L, TODAY.plusDays(10)});
+		scheduler.rebuild();
+		assertEquals(midnight(TODAY.plusDays(10)), timerAt);
+
+		clock.set(TODAY.plusDays(10));
+		fireTimer();
+		assertEquals(List.of("1@2026-03-01", "1@2026-03-11"), announced);
+	}
+
+	private MaintenanceScheduler newScheduler() {
+		return new MaintenanceScheduler(energyObjectRepository, mock(MaintenanceIntervals.class), jdbcTemplate,
+				new StubTransactionManager(), mock(EnergyObjectCacheEvictor.class), taskScheduler, eventPublisher,
+				new SimpleMeterRegistry(), clock);
+	}
+
+	// Срабатывание взведенного таймера; новый таймер (если есть) запоминается заново
+	private void fireTimer() {
+		Runnable task = timerTask;
+		timerTask = null;
+		timerAt = null;
+		task.run();
+	}
+
+	private static Instant midnight(LocalDate date) {
+		return date.atStartOfDay(ZoneOffset.UTC).toInstant();
+	}
+
+	private static final class MutableClock extends Clock {
+		private Instant instant;
+
+		private MutableClock(LocalDate date) {
+			set(date);
+		}
+
+		private void set(LocalDate date) {
+			instant = midnight(date).plusSeconds(3600);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+
+	private static final class StubTransactionManager implements PlatformTransactionManager {
+		@Override
+		public TransactionStatus getTransaction(TransactionDefinition definition) {
+			return new SimpleTransactionStatus();
+		}
+
+		@Override
+		public void commit(TransactionStatus status) {
+		}
+
+		@Override
+		public void rollback(TransactionStatus status) {
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package com.energy_company_v1.service;
+
+import com.energy_company_v1.config.CacheConfig;
+import com.energy_company_v1.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Массовые операции администратора над пользователями: строки в БД меняются одним запросом,
+ * кэши профиля и UserDetails сбрасываются только после коммита.
+ * Нужен Docker; без него тесты пропускаются.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class UserServiceBulkTests {
+
+	@Container
+	@ServiceConnection
+	static PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserDetailsServiceImpl userDetailsService;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void changeRolesInBulkUpdatesRowsAndEvictsAfterCommit() {
+		List<User> users = List.of(register("bulk-role-1"), register("bulk-role-2"));
+		List<Long> ids = users.stream().map(User::getId).toList();
+		users.forEach(user -> warmCaches(user.getUsername()));
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			assertEquals(2, userService.changeRolesInBulk(ids, Set.of("admin", "mod")));
+			// До коммита другие запросы видят старые роли - и кэш должен их хранить
+			users.forEach(user -> assertCached(user.getUsername()));
+		});
+
+		for (User user : users) {
+			assertEquals(List.of("ROLE_ADMIN", "ROLE_MODERATOR"), roleNames(user.getId()));
+			assertEvicted(user.getUsername());
+		}
+	}
+
+	@Test
+	void rolledBackChangeKeepsRowsAndCaches() {
+		User user = register("bulk-rollback");
+		warmCaches(user.getUsername());
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			userService.changeRolesInBulk(List.of(user.getId()), Set.of("admin"));
+			status.setRollbackOnly();
+		});
+
+		assertEquals(List.of("ROLE_USER"), roleNames(user.getId()));
+		assertCached(user.getUsername());
+	}
+
+	@Test
+	void deleteUsersInBulkKeepsCurrentAdmin() {
+		List<User> users = List.of(register("bulk-delete-1"), register("bulk-delete-2"));
+		Long adminId = userService.findByUsername("admin").getId();
+		List<Long> ids = List.of(users.get(0).getId(), users.get(1).getId(), adminId);
+		users.forEach(user -> warmCaches(user.getUsername()));
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			assertEquals(2, userService.deleteUsersInBulk(ids, "admin"));
+			users.forEach(user -> assertCached(user.getUsername()));
+		});
+
+		for (User user : users) {
+			assertEquals(0, count("SELECT count(*) FROM users WHERE id = ?", user.getId()));
+			assertEquals(0, count("SELECT count(*) FROM user_roles WHERE user_id = ?", user.getId()));
+			assertEvicted(user.getUsername());
+		}
+		assertEquals(1, count("SELECT count(*) FROM users WHERE id = ?", adminId));
+	}
+
+	private User register(String username) {
+		return userService.registerUser(username, username + "@example.com", "secret123");
+	}
+
+	private void warmCaches(String username) {
+		userService.getProfile(username);
+		userDetailsService.loadUserByUsername(username);
+		assertCached(username);
+	}
+
+	private void assertCached(String username) {
+		assertNotNull(cache(CacheConfig.USERS_CACHE).get(username), "профиль " + username);
+		assertNotNull(cache(CacheConfig.USER_DETAILS_CACHE).get(username), "UserDetails " + username);
+	}
+
+	private void assertEvicted(String username) {
+		assertNull(cache(CacheConfig.USERS_CACHE).get(username), "профиль " + username);
+		assertNull(cache(CacheConfig.USER_DETAILS_CACHE).get(username), "UserDetails " + username);
+	}
+
+	private Cache cache(String name) {
+		return cacheManager.getCache(name);
+	}
+
+	private List<String> roleNames(Long userId) {
+		return jdbcTemplate.queryForList("SELECT r.name FROM user_roles ur JOIN roles r ON r.id = ur.role_id "
+				+ "WHERE ur.user_id = ? ORDER BY r.name", String.class, userId);
+	}
+
+	private long count(String sql, Object... args) {
+		return jdbcTemplate.queryForObject(sql, Long.class, args);
+	}
+}
@@ -0,0 +1,112 @@
+package com.energy_company_v1.telemetry;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Побитовый ввод-вывод и сжатие блока: распакованный блок должен совпадать с исходным
+ * побитно (метки и raw-биты значений)
+ */
+class TelemetryBlockCodecTests {
+	private static final long START = 1_767_225_600_000L; // 2026-01-01T00:00:00Z
+
+	@Test
+	void bitsRoundTripAcrossByteBoundaries() {
+		Random random = new Random(42);
+		int fields = 10_000;
+		long[] values = new long[fields];
+		int[] widths = new int[fields];
+		BitOutput out = new BitOutput(16);
+		for (int i = 0; i < fields; i++) {
+			widths[i] = 1 + random.nextInt(64);
+			values[i] = widths[i] == 64 ? random.nextLong() : random.nextLong() & ((1L << widths[i]) - 1);
+			out.writeBits(values[i], widths[i]);
+		}
+		out.writeBit(true);
+
+		BitInput in = new BitInput(ByteBuffer.wrap(out.toByteArray()), 0);
+		for (int i = 0; i < fields; i++) {
+			assertEquals(values[i], in.readBits(widths[i]), "поле " + i + " шириной " + widths[i]);
+		}
+		assertTrue(in.readBit());
+	}
+
+	@Test
+	void regularSeriesRoundTripAndCompresses() {
+		int count = 1024;
+		long[] timestamps = new long[count];
+		double[] values = new double[count];
+		for (int i = 0; i < count; i++) {
+			timestamps[i] = START + i * 1000L;
+			values[i] = i < count / 2 ? 125.5 : 125.5 + (i % 7) * 0.25;
+		}
+
+		byte[] payload = TelemetryBlockCodec.encode(timestamps, values, count);
+
+		assertRoundTrip(timestamps, values, count, payload);
+		// Несжатый блок - 16 байт на точку
+		assertTrue(payload.length < count * 16 / 4, "размер блока " + payload.length);
+	}
+
+	@Test
+	void irregularSeriesRoundTrip() {
+		Random random = new Random(7);
+		int count = 2000;
+		long[] timestamps = new long[count];
+		double[] values = new double[count];
+		long timestamp = START;
+		for (int i = 0; i < count; i++) {
+			// Повторы меток, джиттер, пропуски на минуты и часы - все ветви кода разности разностей
+			switch (i % 5) {
+				case 0 -> timestamp += 0;
+				case 1 -> timestamp += 1000 + random.nextInt(50);
+				case 2 -> timestamp += random.nextInt(600_000);
+				case 3 -> timestamp += random.nextInt(4) * 3_600_000L;
+				default -> timestamp += 1;
+			}
+			timestamps[i] = timestamp;
+			values[i] = switch (i % 6) {
+				case 0 -> random.nextGaussian() * 1e6;
+				case 1 -> -0.0;
+				case 2 -> Double.MIN_VALUE;
+				case 3 -> Double.MAX_VALUE;
+				case 4 -> values[Math.max(i - 1, 0)];
+				default -> random.nextDouble();
+			};
+		}
+
+		assertRoundTrip(timestamps, values, count, TelemetryBlockCodec.encode(timestamps, values, count));
+	}
+
+	@Test
+	void singlePointRoundTrip() {
+		long[] timestamps = {START};
+		double[] values = {-42.125};
+
+		assertRoundTrip(timestamps, values, 1, TelemetryBlockCodec.encode(timestamps, values, 1));
+	}
+
+	// Блок читается с произвольного смещения внутри сегмента
+	private static void assertRoundTrip(long[] timestamps, double[] values, int count, byte[] payload) {
+		int offset = 13;
+		ByteBuffer segment = ByteBuffer.allocate(offset + payload.length);
+		segment.put(offset, payload);
+
+		List<long[]> decoded = new ArrayList<>();
+		TelemetryBlockCodec.decode(segment, offset, count, (timestamp, value) ->
+				decoded.add(new long[]{timestamp, Double.doubleToRawLongBits(value)}));
+
+		assertEquals(count, decoded.size());
+		for (int i = 0; i < count; i++) {
+			assertEquals(timestamps[i], decoded.get(i)[0], "метка точки " + i);
+			assertEquals(Double.doubleToRawLongBits(values[i]), decoded.get(i)[1], "значение точки " + i);
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package com.energy_company_v1.telemetry;
+
+import com.energy_company_v1.dto.TelemetryBucket;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Восстановление ряда после сбоя: недописанный хвост сегмента и журнал головы.
+ * Сбой изображается новым хранилищем на том же каталоге без закрытия прежнего.
+ */
+class TelemetryStoreTests {
+	private static final long OBJECT_ID = 1;
+	private static final Instant DAY = Instant.parse("2026-01-10T00:00:00Z");
+	private static final Duration RETENTION = Duration.ofDays(36_500);
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void flushLogsHeadWithoutSealingBlock() {
+		TelemetryStore store = new TelemetryStore(directory, 1024, RETENTION);
+		ingest(store, 0, 100);
+
+		store.flush();
+
+		assertFalse(Files.exists(segment()));
+		assertTrue(Files.exists(headLog()));
+		assertEquals(100, pointCount(new TelemetryStore(directory, 1024, RETENTION)));
+	}
+
+	@Test
+	void recoveredHeadKeepsAcceptingPoints() {
+		TelemetryStore crashed = new TelemetryStore(directory, 1024, RETENTION);
+		ingest(crashed, 0, 10);
+		crashed.flush();
+
+		TelemetryStore store = new TelemetryStore(directory, 1024, RETENTION);
+		ingest(store, 10, 5);
+		// Показания старше восстановленной головы отклоняются
+		ingest(store, 0, 3);
+
+		assertEquals(15, pointCount(store));
+	}
+
+	@Test
+	void headLogDeletedWhenBlockSealed() throws IOException {
+		TelemetryStore store = new TelemetryStore(directory, 10, RETENTION);
+		ingest(store, 0, 5);
+		store.flush();
+		Path staleLog = directory.resolve("stale.wal");
+		Files.copy(headLog(), staleLog);
+
+		ingest(store, 5, 5);
+		assertFalse(Files.exists(headLog()));
+
+		// Журнал, переживший запечатывание своей головы (сбой до удаления), не воспроизводится
+		Files.move(staleLog, headLog(), StandardCopyOption.REPLACE_EXISTING);
+		assertEquals(10, pointCount(new TelemetryStore(directory, 10, RETENTION)));
+	}
+
+	@Test
+	void tornHeadLogRecordIgnored() throws IOException {
+		TelemetryStore crashed = new TelemetryStore(directory, 1024, RETENTION);
+		ingest(crashed, 0, 3);
+		crashed.flush();
+		Files.write(headLog(), new byte[TelemetryStore.HEAD_LOG_RECORD_BYTES - 1], StandardOpenOption.APPEND);
+
+		assertEquals(3, pointCount(new TelemetryStore(directory, 1024, RETENTION)));
+	}
+
+	@Test
+	void tornSegmentTailTruncatedAndAppendable() throws IOException {
+		TelemetryStore crashed = new TelemetryStore(directory, 10, RETENTION);
+		ingest(crashed, 0, 30);
+		long intact = Files.size(segment());
+		try (FileChannel channel = FileChannel.open(segment(), StandardOpenOption.WRITE)) {
+			channel.truncate(intact - 5);
+		}
+
+		TelemetryStore store = new TelemetryStore(directory, 10, RETENTION);
+		assertEquals(20, pointCount(store));
+		long twoBlocks = Files.size(segment());
+		assertTrue(twoBlocks < intact - 5);
+
+		// Новый блок ложится сразу за последним целым и читается
+		ingest(store, 30, 10);
+		assertEquals(30, pointCount(store));
+		assertEquals(30, pointCount(new TelemetryStore(directory, 10, RETENTION)));
+	}
+
+	@Test
+	void tornBlockHeaderTruncated() throws IOException {
+		TelemetryStore crashed = new TelemetryStore(directory, 10, RETENTION);
+		ingest(crashed, 0, 10);
+		long intact = Files.size(segment());
+		Files.write(segment(), new byte[TelemetryStore.BLOCK_HEADER_BYTES / 2], StandardOpenOption.APPEND);
+
+		assertEquals(10, pointCount(new TelemetryStore(directory, 10, RETENTION)));
+		assertEquals(intact, Files.size(segment()));
+	}
+
+	// Показания с шагом в секунду начиная с секунды first
+	private static void ingest(TelemetryStore store, int first, int count) {
+		long[] timestamps = new long[count];
+		double[] values = new double[count];
+		for (int i = 0; i < count; i++) {
+			timestamps[i] = DAY.toEpochMilli() + (first + i) * 1000L;
+			values[i] = 100 + (first + i) % 7;
+		}
+		store.ingest(OBJECT_ID, timestamps, values, count);
+	}
+
+	private static long pointCount(TelemetryStore store) {
+		List<TelemetryBucket> buckets = store.query(OBJECT_ID, DAY, DAY.plus(Duration.ofDays(1)), Duration.ofDays(1));
+		return buckets.stream().mapToLong(TelemetryBucket::getCount).sum();
+	}
+
+	private Path segment() {
+		return directory.resolve(Long.toString(OBJECT_ID)).resolve("2026-01-10.seg");
+	}
+
+	private Path headLog() {
+		return directory.resolve(Long.toString(OBJECT_ID)).resolve(TelemetryStore.HEAD_LOG_FILE);
+	}
+}